@@ -0,0 +1,204 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.trienodes.ACTrieNode;
+import org.marukku.ukkonenscs.trienodes.ACTrieNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+import org.marukku.ukkonenscs.ukkonenscsfinder.BenchmarkInputs;
+import org.marukku.ukkonenscs.ukkonenscsfinder.BenchmarkInputs.Distribution;
+import org.marukku.ukkonenscs.ukkonenscsfinder.RandomStringGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction phases of the {@link AhoCorasickTrie} separately. Every invocation
+ * works on a fresh trie on which all earlier phases already ran. insertKeywords measures the
+ * incremental insertion of a batch of keys into dictionaries of different sizes.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AhoCorasickTrieBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Keys {
+
+    @Param({"4", "26", "256"})
+    int alphabetSize;
+    @Param({"1000", "10000"})
+    int keyCount;
+    @Param({"8", "24"})
+    int keyLength;
+    @Param({"UNIFORM", "SKEWED"})
+    Distribution distribution;
+
+    LanguageParameter parameters;
+    List<String> keys;
+
+    @Setup(Level.Trial)
+    public void createKeys() {
+      parameters = BenchmarkInputs.createLanguage(alphabetSize);
+      keys = BenchmarkInputs.createKeys(parameters, keyCount, keyLength, distribution);
+    }
+
+    AhoCorasickTrie<ACTrieNode> createUnbuiltTrie() {
+      return new AhoCorasickTrie<>(keys, parameters, new ACTrieNodeFactory(), DFAMode.EAGER,
+          false, null, null);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class EmptyTrie {
+
+    AhoCorasickTrie<ACTrieNode> trie;
+
+    @Setup(Level.Invocation)
+    public void createTrie(Keys keys) {
+      trie = keys.createUnbuiltTrie();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class TrieWithSuccessorFunction {
+
+    AhoCorasickTrie<ACTrieNode> trie;
+
+    @Setup(Level.Invocation)
+    public void createTrie(Keys keys) {
+      trie = keys.createUnbuiltTrie();
+      trie.defineSuccessorFunction(keys.keys);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class TrieWithFailureFunction {
+
+    AhoCorasickTrie<ACTrieNode> trie;
+
+    @Setup(Level.Invocation)
+    public void createTrie(Keys keys) {
+      trie = keys.createUnbuiltTrie();
+      trie.defineSuccessorFunction(keys.keys);
+      trie.calculateFailureFunction();
+    }
+  }
+
+  /**
+   * A built dictionary into which every invocation inserts BATCH_COUNT batches of keys. The
+   * dictionary is rebuilt from the same keys before every iteration and the batches are generated
+   * up front, so an invocation always starts from dictionarySize keys (and ends with at most
+   * dictionarySize + 1001). The time per batch should not depend on the size of the dictionary.
+   */
+  @State(Scope.Thread)
+  public static class Dictionary {
+
+    static final int BATCH_COUNT = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    int dictionarySize;
+    @Param({"100"})
+    int batchSize;
+
+    LanguageParameter parameters;
+    List<String> keys;
+    List<List<String>> batches;
+    AhoCorasickTrie<ACTrieNode> trie;
+
+    @Setup(Level.Trial)
+    public void createKeys() {
+      parameters = BenchmarkInputs.createLanguage(26);
+      keys = BenchmarkInputs.createKeys(parameters, dictionarySize, 12, Distribution.UNIFORM);
+      Random random = new Random(dictionarySize);
+      batches = new ArrayList<>(BATCH_COUNT);
+      for (int i = 0; i < BATCH_COUNT; i++) {
+        batches.add(
+            RandomStringGenerator.generateRandomStrings(parameters, batchSize, 6, 19, random, 0));
+      }
+    }
+
+    @Setup(Level.Iteration)
+    public void createTrie() {
+      trie = AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(keys,
+          parameters, new ACTrieNodeFactory(TransitionStrategy.ADAPTIVE), DFAMode.EAGER);
+      //The first insertion indexes the failure function
+      trie.insertKeyword("insert");
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 30)
+  @OperationsPerInvocation(Dictionary.BATCH_COUNT)
+  public AhoCorasickTrie<ACTrieNode> insertKeywords(Dictionary state) {
+    for (List<String> batch : state.batches) {
+      state.trie.insertKeywords(batch);
+    }
+    return state.trie;
+  }
+
+  @Benchmark
+  public AhoCorasickTrie<ACTrieNode> defineSuccessorFunction(EmptyTrie state, Keys keys) {
+    state.trie.defineSuccessorFunction(keys.keys);
+    return state.trie;
+  }
+
+  @Benchmark
+  public AhoCorasickTrie<ACTrieNode> defineSuccessorFunctionInParallel(EmptyTrie state,
+      Keys keys) {
+    state.trie.defineSuccessorFunctionInParallel(keys.keys, ForkJoinPool.commonPool());
+    return state.trie;
+  }
+
+  @Benchmark
+  public AhoCorasickTrie<ACTrieNode> calculateFailureFunction(TrieWithSuccessorFunction state) {
+    state.trie.calculateFailureFunction();
+    return state.trie;
+  }
+
+  @Benchmark
+  public AhoCorasickTrie<ACTrieNode> calculateFailureFunctionInParallel(
+      TrieWithSuccessorFunction state) {
+    state.trie.calculateFailureFunctionInParallel(ForkJoinPool.commonPool());
+    return state.trie;
+  }
+
+  @Benchmark
+  public AhoCorasickTrie<ACTrieNode> buildDFA(TrieWithFailureFunction state) {
+    state.trie.buildDFA();
+    return state.trie;
+  }
+
+  @Benchmark
+  public AhoCorasickTrie<ACTrieNode> buildDFAInParallel(TrieWithFailureFunction state) {
+    state.trie.buildDFAInParallel(ForkJoinPool.commonPool());
+    return state.trie;
+  }
+}
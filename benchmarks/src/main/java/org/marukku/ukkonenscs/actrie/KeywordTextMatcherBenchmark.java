@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.ukkonenscsfinder.BenchmarkInputs;
+import org.marukku.ukkonenscs.ukkonenscsfinder.BenchmarkInputs.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of {@link KeywordTextMatcher#matchText}, collecting Match objects or
+ * reporting to a listener, in chars per second.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class KeywordTextMatcherBenchmark {
+
+  private static final int TEXT_LENGTH = 1 << 20;
+
+  /**
+   * The automaton the matcher scans with.
+   */
+  public enum Backend {
+    NODE_GRAPH, DOUBLE_ARRAY
+  }
+
+  @Param({"4", "26", "256"})
+  int alphabetSize;
+  @Param({"1000", "10000"})
+  int keyCount;
+  @Param({"8", "24"})
+  int keyLength;
+  @Param({"UNIFORM", "SKEWED"})
+  Distribution distribution;
+  @Param({"NODE_GRAPH", "DOUBLE_ARRAY"})
+  Backend backend;
+
+  KeywordTextMatcher matcher;
+  String text;
+
+  @Setup(Level.Trial)
+  public void createMatcher() {
+    LanguageParameter parameters = BenchmarkInputs.createLanguage(alphabetSize);
+    List<String> keys = BenchmarkInputs.createKeys(parameters, keyCount, keyLength, distribution);
+    text = BenchmarkInputs.createText(parameters, TEXT_LENGTH, distribution);
+    matcher = backend == Backend.NODE_GRAPH
+        ? KeywordTextMatcher.createFromParameters(parameters, keys)
+        : KeywordTextMatcher.createDoubleArrayFromParameters(parameters, keys);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TEXT_LENGTH)
+  public List<Match> matchText() {
+    return matcher.matchText(text);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TEXT_LENGTH)
+  public void matchTextWithListener(Blackhole blackhole) {
+    matcher.matchText(text, (keywordId, start, end) -> blackhole.consume(end));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TEXT_LENGTH)
+  public long count() {
+    return matcher.count(text);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TEXT_LENGTH)
+  public void matchTextLeftmostLongest(Blackhole blackhole) {
+    matcher.matchText(text, MatchKind.LEFTMOST_LONGEST,
+        (keywordId, start, end) -> blackhole.consume(end));
+  }
+}
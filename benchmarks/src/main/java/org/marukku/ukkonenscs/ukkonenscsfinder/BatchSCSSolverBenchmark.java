@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.ukkonenscsfinder.BenchmarkInputs.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput (problems per second) of many small SCS problems, solved by a finder per
+ * problem or by a {@link BatchSCSSolver}. Run with "-prof gc" to compare the allocation rates.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@OperationsPerInvocation(BatchSCSSolverBenchmark.PROBLEM_COUNT)
+public class BatchSCSSolverBenchmark {
+
+  static final int PROBLEM_COUNT = 10000;
+
+  @State(Scope.Benchmark)
+  public static class KeySets {
+
+    @Param({"4", "26"})
+    int alphabetSize;
+    @Param({"8", "24"})
+    int keyLength;
+    @Param({"UNIFORM", "SKEWED"})
+    Distribution distribution;
+
+    List<List<String>> keySets;
+    BatchSCSSolver singleWorker;
+    BatchSCSSolver allWorkers;
+
+    @Setup(Level.Trial)
+    public void createKeySets() {
+      LanguageParameter parameters = BenchmarkInputs.createLanguage(alphabetSize);
+      keySets = BenchmarkInputs.createKeySets(parameters, PROBLEM_COUNT, 20, 200, keyLength,
+          distribution);
+      singleWorker = BatchSCSSolver.create(ForkJoinPool.commonPool(), 1);
+      allWorkers = BatchSCSSolver.create(ForkJoinPool.commonPool());
+    }
+  }
+
+  @Benchmark
+  public void finderPerProblem(KeySets state, Blackhole blackhole) {
+    for (List<String> keys : state.keySets) {
+      blackhole.consume(UkkonenSCSFinder.createFromKeys(keys).getSCS());
+    }
+  }
+
+  @Benchmark
+  public void compactFinderPerProblem(KeySets state, Blackhole blackhole) {
+    for (List<String> keys : state.keySets) {
+      blackhole.consume(CompactUkkonenSCSFinder.createFromKeys(keys).getSCS());
+    }
+  }
+
+  @Benchmark
+  public void batchSingleWorker(KeySets state, Blackhole blackhole) {
+    state.singleWorker.solveAll(state.keySets.iterator(),
+        (index, superstring) -> blackhole.consume(superstring.length()));
+  }
+
+  @Benchmark
+  public List<String> batchAllWorkers(KeySets state) {
+    return state.allWorkers.solveAll(state.keySets);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Creates the (seeded, hence reproducible) inputs of all benchmarks using the {@link
+ * RandomStringGenerator}.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class BenchmarkInputs {
+
+  /**
+   * The distribution of the characters in the generated keys and texts.
+   */
+  public enum Distribution {
+    UNIFORM(0),
+    /**
+     * Zipf distributed characters, like in natural language.
+     */
+    SKEWED(1.2);
+
+    private final double skew;
+
+    Distribution(double skew) {
+      this.skew = skew;
+    }
+  }
+
+  private static final long SEED = 42;
+
+  /**
+   * Returns a language with alphabetSize characters. Alphabets of up to 26 characters are prefixes
+   * of "abc...xyz".
+   *
+   * @param alphabetSize the number of characters
+   * @return the language
+   */
+  public static LanguageParameter createLanguage(int alphabetSize) {
+    List<Character> alphabet = new ArrayList<>(alphabetSize);
+    char first = alphabetSize <= 26 ? 'a' : '\u0100';
+    for (int i = 0; i < alphabetSize; i++) {
+      alphabet.add((char) (first + i));
+    }
+    return LanguageParameterFactory.createLanguageParametersFromParams(
+        myChar -> myChar - first, alphabet);
+  }
+
+  /**
+   * Generates keyCount keys whose lengths are uniformly distributed around keyLength.
+   *
+   * @param parameters   the language of the keys
+   * @param keyCount     the number of keys
+   * @param keyLength    the average length of the keys
+   * @param distribution the distribution of the characters
+   * @return the keys
+   */
+  public static List<String> createKeys(LanguageParameter parameters, int keyCount, int keyLength,
+      Distribution distribution) {
+    return RandomStringGenerator.generateRandomStrings(parameters, keyCount,
+        Math.max(1, keyLength / 2), keyLength + keyLength / 2 + 1, new Random(SEED),
+        distribution.skew);
+  }
+
+  /**
+   * Generates problemCount independent key sets of minKeyCount to maxKeyCount keys each.
+   *
+   * @param parameters   the language of the keys
+   * @param problemCount the number of key sets
+   * @param minKeyCount  the minimal number of keys of a set (inclusive)
+   * @param maxKeyCount  the maximal number of keys of a set (inclusive)
+   * @param keyLength    the average length of the keys
+   * @param distribution the distribution of the characters
+   * @return the key sets
+   */
+  public static List<List<String>> createKeySets(LanguageParameter parameters, int problemCount,
+      int minKeyCount, int maxKeyCount, int keyLength, Distribution distribution) {
+    Random random = new Random(SEED + 2);
+    List<List<String>> keySets = new ArrayList<>(problemCount);
+    for (int i = 0; i < problemCount; i++) {
+      keySets.add(RandomStringGenerator.generateRandomStrings(parameters,
+          minKeyCount + random.nextInt(maxKeyCount - minKeyCount + 1), Math.max(1, keyLength / 2),
+          keyLength + keyLength / 2 + 1, random, distribution.skew));
+    }
+    return keySets;
+  }
+
+  /**
+   * Generates a text of textLength characters.
+   *
+   * @param parameters   the language of the text
+   * @param textLength   the length of the text
+   * @param distribution the distribution of the characters
+   * @return the text
+   */
+  public static String createText(LanguageParameter parameters, int textLength,
+      Distribution distribution) {
+    return RandomStringGenerator.generateRandomStrings(parameters, 1, textLength, textLength + 1,
+        new Random(SEED + 1), distribution.skew).get(0);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+import org.marukku.ukkonenscs.ukkonenscsfinder.BenchmarkInputs.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the phases of the {@link UkkonenSCSFinder} (after the construction of its trie)
+ * separately. Every invocation works on a fresh finder on which all earlier phases already ran.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UkkonenSCSFinderBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Keys {
+
+    @Param({"4", "26", "256"})
+    int alphabetSize;
+    @Param({"1000", "10000"})
+    int keyCount;
+    @Param({"8", "24"})
+    int keyLength;
+    @Param({"UNIFORM", "SKEWED"})
+    Distribution distribution;
+
+    LanguageParameter parameters;
+    List<String> keys;
+
+    @Setup(Level.Trial)
+    public void createKeys() {
+      parameters = BenchmarkInputs.createLanguage(alphabetSize);
+      keys = BenchmarkInputs.createKeys(parameters, keyCount, keyLength, distribution);
+    }
+
+    UkkonenSCSFinder createFinderWithoutPhases() {
+      return new UkkonenSCSFinder(keys, parameters, TransitionStrategy.DENSE, false);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class FinderWithTrie {
+
+    UkkonenSCSFinder finder;
+
+    @Setup(Level.Invocation)
+    public void createFinder(Keys keys) {
+      finder = keys.createFinderWithoutPhases();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class PreprocessedFinder {
+
+    UkkonenSCSFinder finder;
+
+    @Setup(Level.Invocation)
+    public void createFinder(Keys keys) {
+      finder = keys.createFinderWithoutPhases();
+      finder.preprocessTrie();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class FinishedFinder {
+
+    UkkonenSCSFinder finder;
+
+    @Setup(Level.Trial)
+    public void createFinder(Keys keys) {
+      finder = UkkonenSCSFinder.createFromParams(keys.keys, keys.parameters);
+    }
+  }
+
+  @Benchmark
+  public UkkonenSCSFinder preprocessTrie(FinderWithTrie state) {
+    state.finder.preprocessTrie();
+    return state.finder;
+  }
+
+  @Benchmark
+  public UkkonenSCSFinder greedilyBuildHamiltonPath(PreprocessedFinder state) {
+    state.finder.greedilyBuildHamiltonPath();
+    return state.finder;
+  }
+
+  @Benchmark
+  public String getSCS(FinishedFinder state) {
+    return state.finder.getSCS();
+  }
+}
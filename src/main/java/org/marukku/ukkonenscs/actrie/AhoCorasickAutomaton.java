@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+
+/**
+ * A read-only view of a fully built Aho-Corasick DFA in which states are plain integers. It is the
+ * common interface of all automaton representations the {@link KeywordTextMatcher} can scan with
+ * (the node-object graph of an {@link AhoCorasickTrie} and the compiled {@link
+ * DoubleArrayAhoCorasickTrie}).
+ *
+ * <p>Outputs are stored as output links: A state stores at most the id of the keyword ending in it
+ * and a link to the nearest state on its failure path that has a keyword. All keywords matched in
+ * a state can be enumerated by following these links.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public interface AhoCorasickAutomaton {
+
+  /**
+   * Returns the state the DFA starts in.
+   *
+   * @return the root state
+   */
+  int getRootState();
+
+  /**
+   * Returns the number of states of the DFA. States are numbered from 0 (inclusive) to the state
+   * count (exclusive).
+   *
+   * @return the number of states
+   */
+  int getStateCount();
+
+  /**
+   * Returns the next state of the DFA when reading input in state.
+   *
+   * @param state the current state
+   * @param input Character read from the text
+   * @return the next state
+   */
+  int getDFATransition(int state, char input);
+
+  /**
+   * Returns the next state of the DFA when reading the character with the given code in state. It
+   * skips mapping the character, so scanners which resolve the codes of all possible inputs once
+   * (e.g. the 256 bytes of a byte language) can index the DFA directly. Codes are not indices into
+   * {@link LanguageParameter#getAlphabet()}, whose order is arbitrary, so implementations have to
+   * resolve them from their own tables.
+   *
+   * @param state the current state
+   * @param code  the code of the character read, see {@link LanguageParameter#map(char)}
+   * @return the next state
+   */
+  int getDFATransitionByCode(int state, int code);
+
+  /**
+   * Returns the depth of state in the trie, i.e. the length of the keyword prefix it represents.
+   * After reading a text up to position i, the DFA is in the state of the longest suffix of the
+   * text which is a keyword prefix, so no keyword occurrence containing position i can start before
+   * i + 1 - depth.
+   *
+   * @param state the state we want to query
+   * @return the depth of state, 0 for the root
+   */
+  int getStateDepth(int state);
+
+  /**
+   * Returns the id of the keyword ending in state, or -1 if no keyword ends in it.
+   *
+   * @param state the state we want to query
+   * @return the keyword id, an index into the keyword list, or -1
+   */
+  int getKeywordId(int state);
+
+  /**
+   * Returns the nearest state on the failure path of state (excluding state itself) which has a
+   * keyword id, or -1 if there is none.
+   *
+   * @param state the state we want to query
+   * @return the next output-bearing state or -1
+   */
+  int getOutputLink(int state);
+
+  /**
+   * Returns the keyword with the given id.
+   *
+   * @param keywordId the id of the keyword
+   * @return the keyword
+   */
+  String getKeyword(int keywordId);
+
+  /**
+   * Returns the length of the keyword with the given id. Implementations which do not keep their
+   * keywords as Strings override this to avoid creating them.
+   *
+   * @param keywordId the id of the keyword
+   * @return the length of the keyword
+   */
+  default int getKeywordLength(int keywordId) {
+    return getKeyword(keywordId).length();
+  }
+
+  /**
+   * Returns the number of keywords the automaton was built from (including duplicates).
+   *
+   * @return the number of keywords
+   */
+  int getKeywordCount();
+
+  /**
+   * Returns the {@link LanguageParameter} of the automaton.
+   *
+   * @return the language parameters
+   */
+  LanguageParameter getParameters();
+}
@@ -8,15 +8,26 @@ package org.marukku.ukkonenscs.actrie;
 import org.marukku.ukkonenscs.alphabet.LanguageParameter;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import org.marukku.ukkonenscs.metrics.BuildListener;
+import org.marukku.ukkonenscs.metrics.BuildPhase;
+import org.marukku.ukkonenscs.metrics.BuildSize;
+import org.marukku.ukkonenscs.metrics.PhaseTimer;
 import org.marukku.ukkonenscs.trienodes.ACTrieNode;
 import org.marukku.ukkonenscs.trienodes.AbstractACNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
 
 
 /**
  * Represents and builds an AhoCorasickTrie. This class takes a set of keywords, a {@link
- * LanguageParameter} and a NodeFactory and then builds the Trie + the DFA. <br>It is built to make
+ * LanguageParameter} and a NodeFactory and then builds the Trie + the DFA (eagerly or lazily, see
+ * {@link DFAMode}). <br>It is built to make
  * extension easy: We can inject different node factories and then build algorithms on the exposed
  * list of trie nodes.
  *
@@ -28,33 +39,155 @@ import org.marukku.ukkonenscs.trienodes.AbstractACNodeFactory;
  */
 public class AhoCorasickTrie<nodeType extends ACTrieNode> {
 
+  /**
+   * The minimal number of nodes of a bfs level processed by one task of a parallel build.
+   */
+  private static final int MIN_PARALLEL_LEVEL_CHUNK_SIZE = 1 << 10;
+  /**
+   * The number of chunks per worker of a parallel build, so that workers finishing early can steal.
+   */
+  private static final int CHUNKS_PER_WORKER = 4;
+
   private List<String> keys;
   private LanguageParameter parameters;
   private AbstractACNodeFactory<nodeType> nodeConstructorFactory;
+  private final DFAMode dfaMode;
+  /**
+   * Receives the duration and sizes of the construction phases (null if they are not measured).
+   */
+  private final BuildListener listener;
 
   public List<nodeType> trieNodes = new ArrayList<>();
   public nodeType rootNode;
 
+  /**
+   * The inverse failure function as doubly linked lists over node ids (the nodes failing to node i
+   * are firstFailChild[i], nextFailSibling[firstFailChild[i]], ...). Only built on the first
+   * insertion of a keyword.
+   */
+  private int[] firstFailChild;
+  private int[] nextFailSibling;
+  private int[] previousFailSibling;
+
 
+  /**
+   * Creates the trie; use the methods of {@link AhoCorasickTrieFactory} instead. If pool is not
+   * null, the subtries below the children of the root are built concurrently (see
+   * defineSuccessorFunctionInParallel), the failure function and DFA level by level; the result is
+   * identical to a trie built sequentially.
+   *
+   * @param keys                   the keys we want to match with
+   * @param parameters             the {@link LanguageParameter} of the keys
+   * @param nodeConstructorFactory the factory creating the nodes (called concurrently if pool is
+   *                               not null)
+   * @param dfaMode                the {@link DFAMode} of the trie
+   * @param build                  whether to run the construction phases; unbuilt tries are used
+   *                               to run (and measure) the phases one by one
+   * @param pool                   the {@link ForkJoinPool} building the trie or null to build it
+   *                               on the calling thread
+   * @param listener               the {@link BuildListener} receiving the duration and sizes of
+   *                               the construction phases or null if they are not measured
+   */
   AhoCorasickTrie(List<String> keys, LanguageParameter parameters,
-      AbstractACNodeFactory<nodeType> nodeConstructorFactory) {
+      AbstractACNodeFactory<nodeType> nodeConstructorFactory, DFAMode dfaMode, boolean build,
+      ForkJoinPool pool, BuildListener listener) {
     this.keys = keys;
     this.parameters = parameters;
     this.nodeConstructorFactory = nodeConstructorFactory;
+    this.dfaMode = dfaMode;
+    this.listener = listener;
 
     //Test whether constructor fits!
     this.rootNode = nodeConstructorFactory
                         .createFromDefaultValues(parameters, false, '$');
     trieNodes.add(rootNode);
 
-    createTrie();
+    if (build) {
+      createTrie(pool);
+    }
+  }
+
+
+  /**
+   * Returns the keys this trie was built from. The keyword id stored in the nodes is the index of
+   * the keyword in this list.
+   *
+   * @return the list of keys
+   */
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Returns the {@link LanguageParameter} this trie was built with.
+   *
+   * @return the language parameters of the trie
+   */
+  public LanguageParameter getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Returns the {@link DFAMode} this trie was built with.
+   *
+   * @return the DFA mode of the trie
+   */
+  public DFAMode getDFAMode() {
+    return dfaMode;
   }
 
+  /**
+   * Compiles the current keys of this trie into an immutable {@link DoubleArrayAhoCorasickTrie}.
+   * Unlike this trie (whose nodes are public and change on insertKeyword), the frozen automaton can
+   * be shared between any number of scanning threads; later insertions do not affect it.
+   *
+   * @return the frozen automaton of the current keys
+   */
+  public DoubleArrayAhoCorasickTrie freeze() {
+    return AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(keys, parameters);
+  }
 
-  private void createTrie() {
-    defineSuccessorFunction(keys);
-    calculateFailureFunction();
-    buildDFA();
+  private void createTrie(ForkJoinPool pool) {
+    TrieConstructionEvent event = new TrieConstructionEvent();
+    event.begin();
+    PhaseTimer timer = PhaseTimer.start(listener, BuildPhase.SUCCESSOR_FUNCTION);
+    if (pool == null) {
+      defineSuccessorFunction(keys);
+    } else {
+      defineSuccessorFunctionInParallel(keys, pool);
+    }
+    timer.stop();
+    timer = PhaseTimer.start(listener, BuildPhase.FAILURE_FUNCTION);
+    if (pool == null) {
+      calculateFailureFunction();
+    } else {
+      calculateFailureFunctionInParallel(pool);
+    }
+    timer.stop();
+    if (dfaMode == DFAMode.EAGER) {
+      timer = PhaseTimer.start(listener, BuildPhase.DFA);
+      if (pool == null) {
+        buildDFA();
+      } else {
+        buildDFAInParallel(pool);
+      }
+      timer.stop();
+    }
+    PhaseTimer.report(listener, BuildSize.NODE_COUNT, trieNodes.size());
+    commit(event, pool != null);
+  }
+
+  private void commit(TrieConstructionEvent event, boolean parallel) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.automaton = getClass().getSimpleName() + "<"
+                            + rootNode.getClass().getSimpleName() + ">";
+      event.dfaMode = dfaMode.name();
+      event.parallel = parallel;
+      event.keywordCount = keys.size();
+      event.nodeCount = trieNodes.size();
+      event.commit();
+    }
   }
 
   /**
@@ -63,42 +196,140 @@ public class AhoCorasickTrie<nodeType extends ACTrieNode> {
    *
    * @param keys a List of String containing the keys we want to match with later
    */
-  private void defineSuccessorFunction(List<String> keys) {
-    for (String key : keys) {
-      ACTrieNode current = rootNode;
+  void defineSuccessorFunction(List<String> keys) {
+    int firstNewNode = trieNodes.size();
+    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+      insertKeyBelow(rootNode, keys.get(keyIndex), keyIndex, trieNodes);
+    }
+    for (int id = firstNewNode; id < trieNodes.size(); id++) {
+      trieNodes.get(id).id = id;
+    }
+    linkUnusedRootTransitions();
+  }
 
-      int charIndex = 0;
-      char[] keyChars = key.toCharArray();
+  /**
+   * Defines the successor function like defineSuccessorFunction, but builds the subtries below the
+   * children of the root concurrently on pool. The keys are partitioned by their first symbol, so
+   * the subtries are disjoint; every task inserts the keys of its partition (in key order) below a
+   * private temporary root. The subtries are then stitched under the root and the nodes numbered in
+   * the order the sequential insertion creates them, so the resulting trie is identical.
+   *
+   * @param keys a List of String containing the keys we want to match with later
+   * @param pool the {@link ForkJoinPool} building the subtries
+   */
+  void defineSuccessorFunctionInParallel(List<String> keys, ForkJoinPool pool) {
+    int alphabetSize = parameters.getAlphabetSize();
+    int[] partitionOf = new int[keys.size()];
+    int[] partitionSizes = new int[alphabetSize];
+    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+      String key = keys.get(keyIndex);
+      partitionOf[keyIndex] = key.isEmpty() ? -1 : parameters.map(key.charAt(0));
+      if (partitionOf[keyIndex] != -1) {
+        partitionSizes[partitionOf[keyIndex]]++;
+      }
+    }
+    int[][] partitions = new int[alphabetSize][];
+    for (int code = 0; code < alphabetSize; code++) {
+      partitions[code] = new int[partitionSizes[code]];
+      partitionSizes[code] = 0;
+    }
+    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+      int code = partitionOf[keyIndex];
+      if (code != -1) {
+        partitions[code][partitionSizes[code]++] = keyIndex;
+      }
+    }
 
-      while (charIndex < keyChars.length
-                 && (current.getNextNode(keyChars[charIndex]) != null)) {
+    //createdNodeCounts[i] is the number of nodes key i creates; every task writes its own keys
+    int[] createdNodeCounts = new int[keys.size()];
+    List<ForkJoinTask<List<nodeType>>> tasks = new ArrayList<>(alphabetSize);
+    for (int code = 0; code < alphabetSize; code++) {
+      int[] partition = partitions[code];
+      tasks.add(partition.length == 0 ? null
+                    : pool.submit(() -> buildSubtrie(keys, partition, createdNodeCounts)));
+    }
+    List<List<nodeType>> subtries = new ArrayList<>(alphabetSize);
+    for (ForkJoinTask<List<nodeType>> task : tasks) {
+      subtries.add(task == null ? null : task.join());
+    }
 
-        current = current.getNextNode(keyChars[charIndex]);
-        charIndex++;
+    int[] nextNodeInSubtrie = new int[alphabetSize];
+    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+      for (int i = 0; i < createdNodeCounts[keyIndex]; i++) {
+        int code = partitionOf[keyIndex];
+        nodeType node = subtries.get(code).get(nextNodeInSubtrie[code]++);
+        node.id = trieNodes.size();
+        trieNodes.add(node);
+      }
+    }
+    for (List<nodeType> subtrie : subtries) {
+      if (subtrie != null) {
+        //The first node a subtrie creates is the child of its root
+        rootNode.setNextNode(subtrie.get(0).parentChar, subtrie.get(0));
       }
+    }
+    linkUnusedRootTransitions();
+  }
 
-      for (int ind = charIndex; ind < keyChars.length; ind++) {
+  private List<nodeType> buildSubtrie(List<String> keys, int[] partition,
+      int[] createdNodeCounts) {
+    ACTrieNode subtrieRoot = nodeConstructorFactory.createFromDefaultValues(parameters, false, '$');
+    List<nodeType> created = new ArrayList<>();
+    for (int keyIndex : partition) {
+      int before = created.size();
+      insertKeyBelow(subtrieRoot, keys.get(keyIndex), keyIndex, created);
+      createdNodeCounts[keyIndex] = created.size() - before;
+    }
+    return created;
+  }
 
-        char currentChar = keyChars[ind];
-        boolean isLeaf = (ind == (keyChars.length - 1));
+  /**
+   * Inserts key into the trie below start, appending the nodes it creates to created (without
+   * numbering them).
+   */
+  private void insertKeyBelow(ACTrieNode start, String key, int keyIndex, List<nodeType> created) {
+    ACTrieNode current = start;
 
-        nodeType newNode = nodeConstructorFactory
-                               .createFromDefaultValues(parameters, isLeaf, currentChar);
+    int charIndex = 0;
+    char[] keyChars = key.toCharArray();
 
-        if (isLeaf) {
-          newNode.output.add(key);
-        }
+    while (charIndex < keyChars.length
+               && (current.getNextNode(keyChars[charIndex]) != null)) {
 
-        current.setNextNode(currentChar, newNode);
-        current = newNode;
-        trieNodes.add(newNode);
+      current = current.getNextNode(keyChars[charIndex]);
+      charIndex++;
+    }
+
+    for (int ind = charIndex; ind < keyChars.length; ind++) {
+
+      char currentChar = keyChars[ind];
+      boolean isLeaf = (ind == (keyChars.length - 1));
+
+      nodeType newNode = nodeConstructorFactory
+                             .createFromDefaultValues(parameters, isLeaf, currentChar);
+
+      if (isLeaf) {
+        newNode.keywordId = keyIndex;
       }
+
+      current.setNextNode(currentChar, newNode);
+      current = newNode;
+      created.add(newNode);
     }
 
+    // The key is a prefix of an earlier key, so its end node already exists
+    if (charIndex == keyChars.length && current != start && !current.isEndOfWord) {
+      current.isEndOfWord = true;
+      current.keywordId = keyIndex;
+    }
+  }
+
+  private void linkUnusedRootTransitions() {
     // Set all unused paths to go back to the root node
-    for (int go = 0; go < rootNode.getSuccessorNodes().size(); go++) {
-      if (rootNode.getSuccessorNodes().get(go) == null) {
-        rootNode.getSuccessorNodes().set(go, rootNode);
+    List<ACTrieNode> rootSuccessors = rootNode.getSuccessorNodes();
+    for (int go = 0; go < rootSuccessors.size(); go++) {
+      if (rootSuccessors.get(go) == null) {
+        rootSuccessors.set(go, rootNode);
       }
     }
   }
@@ -106,12 +337,13 @@ public class AhoCorasickTrie<nodeType extends ACTrieNode> {
   /**
    * Calculates the failure function for each node. (See Paper)
    */
-  private void calculateFailureFunction() {
+  void calculateFailureFunction() {
 
     rootNode.setFail(rootNode);
     Deque<ACTrieNode> bfsQueue = new ArrayDeque<>();
 
-    for (ACTrieNode child : rootNode.getSuccessorNodes()) {
+    for (int slot = 0; slot < rootNode.getSuccessorSlotCount(); slot++) {
+      ACTrieNode child = rootNode.getSuccessorInSlot(slot);
       if (child != rootNode) {
         bfsQueue.add(child);
         child.setFail(rootNode);
@@ -120,51 +352,396 @@ public class AhoCorasickTrie<nodeType extends ACTrieNode> {
 
     while (!bfsQueue.isEmpty()) {
       ACTrieNode curParentState = bfsQueue.poll();
+      linkChildrenToFailureStates(curParentState);
+      addChildren(bfsQueue, curParentState);
+    }
 
-      for (ACTrieNode childState : curParentState.getSuccessorNodes()) {
-        if (childState == null) {
-          continue;
-        }
+  }
 
-        bfsQueue.add(childState);
-        ACTrieNode failureState = curParentState.getFail();
-        char path = childState.parentChar;
+  /**
+   * Calculates the failure function like calculateFailureFunction, but level by level: The failure
+   * states (and output links) of the children of all nodes at one depth only depend on shallower
+   * nodes, so the nodes of a level are split into chunks which are processed concurrently on pool.
+   * Every task only writes the children of its own nodes, so the result is deterministic and
+   * identical to the sequential one.
+   *
+   * @param pool the {@link ForkJoinPool} processing the levels
+   */
+  void calculateFailureFunctionInParallel(ForkJoinPool pool) {
+    rootNode.setFail(rootNode);
+    List<ACTrieNode> level = new ArrayList<>();
+    for (int slot = 0; slot < rootNode.getSuccessorSlotCount(); slot++) {
+      ACTrieNode child = rootNode.getSuccessorInSlot(slot);
+      if (child != rootNode) {
+        level.add(child);
+        child.setFail(rootNode);
+      }
+    }
+
+    while (!level.isEmpty()) {
+      level = processLevel(pool, level, this::linkChildrenToFailureStates);
+    }
+  }
+
+  /**
+   * Defines the failure states and output links of the children of a non-root node, whose own
+   * failure state needs to be defined already.
+   */
+  private void linkChildrenToFailureStates(ACTrieNode curParentState) {
+    for (int slot = 0; slot < curParentState.getSuccessorSlotCount(); slot++) {
+      ACTrieNode childState = curParentState.getSuccessorInSlot(slot);
+      if (childState == null) {
+        continue;
+      }
+
+      ACTrieNode failureState = curParentState.getFail();
+      char path = childState.parentChar;
+
+      //Terminates because root will never fail
+      while (failureState.getNextNode(path) == null) {
+        failureState = failureState.getFail();
+      }
+
+      childState.setFail(failureState.getNextNode(path));
+      childState.outputLink = outputLinkThrough(childState.getFail());
+    }
+  }
+
+  /**
+   * Returns the output link of a node failing to fail: fail itself if a keyword ends there,
+   * otherwise the output link of fail.
+   */
+  private static ACTrieNode outputLinkThrough(ACTrieNode fail) {
+    return fail.keywordId != -1 ? fail : fail.outputLink;
+  }
 
-        //Terminates because root will never fail
-        while (failureState.getNextNode(path) == null) {
-          failureState = failureState.getFail();
-        }
+  /**
+   * Returns the keywords of all matches ending at node: the keyword ending at node (if any),
+   * followed by the keywords reached through the output links.
+   *
+   * @param node a node of this trie
+   * @return the output of node
+   */
+  public List<String> getOutput(ACTrieNode node) {
+    List<String> output = new ArrayList<>();
+    for (ACTrieNode out = node.keywordId != -1 ? node : node.outputLink; out != null;
+        out = out.outputLink) {
+      output.add(keys.get(out.keywordId));
+    }
+    return output;
+  }
 
-        childState.setFail(failureState.getNextNode(path));
-        childState.output.addAll(childState.getFail().output);
+  private static void addChildren(Collection<ACTrieNode> nodes, ACTrieNode node) {
+    for (int slot = 0; slot < node.getSuccessorSlotCount(); slot++) {
+      if (node.getSuccessorInSlot(slot) != null) {
+        nodes.add(node.getSuccessorInSlot(slot));
       }
     }
+  }
 
+  /**
+   * Applies action to all (non-root) nodes of a bfs level, concurrently in chunks if the level is
+   * large enough, and returns the next level: the children of the nodes in order.
+   */
+  private static List<ACTrieNode> processLevel(ForkJoinPool pool, List<ACTrieNode> level,
+      Consumer<ACTrieNode> action) {
+    int chunkCount = Math.min(CHUNKS_PER_WORKER * pool.getParallelism(),
+        level.size() / MIN_PARALLEL_LEVEL_CHUNK_SIZE);
+    if (chunkCount <= 1) {
+      return processLevelChunk(level, 0, level.size(), action);
+    }
+
+    int chunkSize = (level.size() + chunkCount - 1) / chunkCount;
+    List<ForkJoinTask<List<ACTrieNode>>> tasks = new ArrayList<>(chunkCount);
+    for (int chunkStart = 0; chunkStart < level.size(); chunkStart += chunkSize) {
+      int from = chunkStart;
+      int to = Math.min(level.size(), chunkStart + chunkSize);
+      tasks.add(pool.submit(() -> processLevelChunk(level, from, to, action)));
+    }
+
+    List<ACTrieNode> nextLevel = new ArrayList<>();
+    for (ForkJoinTask<List<ACTrieNode>> task : tasks) {
+      nextLevel.addAll(task.join());
+    }
+    return nextLevel;
+  }
+
+  private static List<ACTrieNode> processLevelChunk(List<ACTrieNode> level, int from, int to,
+      Consumer<ACTrieNode> action) {
+    List<ACTrieNode> children = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      action.accept(level.get(i));
+      addChildren(children, level.get(i));
+    }
+    return children;
   }
 
   /**
    * Reduces the connections to failure nodes to a new transition function. (See Paper)
    */
-  private void buildDFA() {
+  void buildDFA() {
     Deque<ACTrieNode> bfsQueue = new ArrayDeque<>();
+    buildRootDFATransitions(bfsQueue);
+
+    while (!bfsQueue.isEmpty()) {
+      ACTrieNode curNode = bfsQueue.poll();
+      deriveDFATransitions(curNode);
+      addChildren(bfsQueue, curNode);
+    }
+  }
+
+  /**
+   * Builds the DFA like buildDFA, but level by level on pool (see
+   * calculateFailureFunctionInParallel). The DFA transitions of a node only depend on those of its
+   * (shallower) fail node.
+   *
+   * @param pool the {@link ForkJoinPool} processing the levels
+   */
+  void buildDFAInParallel(ForkJoinPool pool) {
+    List<ACTrieNode> level = new ArrayList<>();
+    buildRootDFATransitions(level);
 
+    while (!level.isEmpty()) {
+      level = processLevel(pool, level, this::deriveDFATransitions);
+    }
+  }
+
+  /**
+   * Defines the DFA transitions of the root and adds its children to firstLevel.
+   */
+  private void buildRootDFATransitions(Collection<ACTrieNode> firstLevel) {
     for (char c : parameters.getAlphabet()) {
       rootNode.setDFATransition(c, rootNode.getNextNode(c));
       if (rootNode.getNextNode(c) != rootNode) {
-        bfsQueue.add(rootNode.getNextNode(c));
+        firstLevel.add(rootNode.getNextNode(c));
       }
     }
+  }
+
+  /**
+   * Computes the DFA transitions of a non-root node from its successors and the DFA transitions of
+   * its fail node, which need to be computed already.
+   */
+  private void deriveDFATransitions(ACTrieNode node) {
+    if (node.getTransitionStrategy() == TransitionStrategy.ADAPTIVE) {
+      // Only store the transitions that differ from the root; proportional to the edges
+      node.deriveSparseDFATransitions(rootNode);
+      return;
+    }
+
+    for (char c : parameters.getAlphabet()) {
+      if (node.getNextNode(c) != null) {
+        node.setDFATransition(c, node.getNextNode(c));
+      } else {
+        node.setDFATransition(c, node.getFail().getDFATransition(c));
+      }
+    }
+  }
+
+  //Incremental insertion
+
+  /**
+   * Inserts key into the built trie. The result equals a trie built from getKeys() + key (same
+   * node ids, failure function, outputs and DFA), but only the part of the trie the new nodes
+   * affect is recomputed: For every new node u with parent p, these are the nodes whose failure
+   * path reaches p without passing a node that has a transition for the char of u. Those nodes now
+   * fail to (or, in the DFA, transition to) u.
+   *
+   * <p>The first insertion builds an index of the inverse failure function, which takes time
+   * proportional to the size of the trie. Matchers created from the trie before the insertion do
+   * not see the new keyword, create a new one. The trie must not be used concurrently while keys
+   * are inserted.
+   *
+   * @param key the keyword we want to add
+   * @return the keyword id of key, i.e. its index in getKeys()
+   * @throws IllegalArgumentException if key contains a character outside the alphabet; the trie is
+   *                                  left unchanged then
+   */
+  public int insertKeyword(String key) {
+    for (int i = 0; i < key.length(); i++) {
+      if (!parameters.contains(key.charAt(i))) {
+        throw new IllegalArgumentException("Character '" + key.charAt(i)
+            + "' is not part of the alphabet of the language parameters");
+      }
+    }
+    if (firstFailChild == null) {
+      keys = new ArrayList<>(keys);
+      buildInverseFailureFunction();
+    }
+    int keyIndex = keys.size();
+    keys.add(key);
+    char[] keyChars = key.toCharArray();
+
+    ACTrieNode current = rootNode;
+    int charIndex = 0;
+    while (charIndex < keyChars.length && hasChild(current, keyChars[charIndex])) {
+      current = current.getNextNode(keyChars[charIndex]);
+      charIndex++;
+    }
 
+    if (charIndex == keyChars.length) {
+      // The key is a prefix of an earlier key, so its end node already exists
+      if (current != rootNode && !current.isEndOfWord) {
+        current.isEndOfWord = true;
+        current.keywordId = keyIndex;
+        refreshOutputLinks(current);
+      }
+      return keyIndex;
+    }
+
+    int firstNewNode = trieNodes.size();
+    for (int ind = charIndex; ind < keyChars.length; ind++) {
+      char currentChar = keyChars[ind];
+      boolean isLeaf = (ind == (keyChars.length - 1));
+
+      nodeType newNode = nodeConstructorFactory
+                             .createFromDefaultValues(parameters, isLeaf, currentChar);
+      if (isLeaf) {
+        newNode.keywordId = keyIndex;
+      }
+      newNode.id = trieNodes.size();
+      trieNodes.add(newNode);
+      current.setNextNode(currentChar, newNode);
+      linkNewNode(current, newNode);
+      newNode.outputLink = outputLinkThrough(newNode.getFail());
+      if (isLeaf) {
+        refreshOutputLinks(newNode);
+      }
+      current = newNode;
+    }
+
+    if (dfaMode == DFAMode.EAGER) {
+      // The fail nodes of the new nodes are final now and shallower, so ascending ids work
+      for (int id = firstNewNode; id < trieNodes.size(); id++) {
+        deriveDFATransitions(trieNodes.get(id));
+      }
+    }
+    return keyIndex;
+  }
+
+  /**
+   * Inserts all keys into the built trie, see insertKeyword.
+   *
+   * @param newKeys the keywords we want to add
+   * @throws IllegalArgumentException if a key contains a character outside the alphabet; the keys
+   *                                  before it are inserted then
+   */
+  public void insertKeywords(List<String> newKeys) {
+    for (String key : newKeys) {
+      insertKeyword(key);
+    }
+  }
+
+  private boolean hasChild(ACTrieNode node, char c) {
+    ACTrieNode child = node.getNextNode(c);
+    return child != null && child != rootNode;
+  }
+
+  /**
+   * Defines the failure function of the new node u (a successor of parent), moves the failure
+   * links of existing nodes which now fail to u, and updates the DFA transitions which now lead to
+   * u. Both happen in the same traversal of the failure tree below parent.
+   */
+  private void linkNewNode(ACTrieNode parent, ACTrieNode u) {
+    char path = u.parentChar;
+    ACTrieNode failureState = rootNode;
+    if (parent != rootNode) {
+      failureState = parent.getFail();
+      //Terminates because root will never fail
+      while (failureState.getNextNode(path) == null) {
+        failureState = failureState.getFail();
+      }
+      failureState = failureState.getNextNode(path);
+    }
+    u.setFail(failureState);
+    ensureInverseFailureCapacity(u.id + 1);
+    firstFailChild[u.id] = -1;
+
+    parent.updateDFATransition(path, u);
+    Deque<ACTrieNode> pending = new ArrayDeque<>();
+    pushFailChildren(pending, parent);
+    while (!pending.isEmpty()) {
+      ACTrieNode node = pending.poll();
+      ACTrieNode child = node.getNextNode(path);
+      if (child == null) {
+        // node follows its failure path for path, which now ends in u
+        node.updateDFATransition(path, u);
+        pushFailChildren(pending, node);
+      } else if (child.getFail() == failureState) {
+        // u is a longer suffix of child than its old fail node; the nodes failing to child (and
+        // the transitions of nodes below node) do not change
+        unlinkFailChild(failureState.id, child.id);
+        child.setFail(u);
+        linkFailChild(u.id, child.id);
+      }
+    }
+    linkFailChild(failureState.id, u.id);
+  }
+
+  /**
+   * Recomputes the output links of the nodes which (transitively) fail to node, after a keyword
+   * started ending at node. Nodes at which a keyword ends shield the nodes failing to them.
+   */
+  private void refreshOutputLinks(ACTrieNode node) {
+    Deque<ACTrieNode> bfsQueue = new ArrayDeque<>();
+    pushFailChildren(bfsQueue, node);
     while (!bfsQueue.isEmpty()) {
-      ACTrieNode curNode = bfsQueue.poll();
-      for (char c : parameters.getAlphabet()) {
-        if (curNode.getNextNode(c) != null) {
-          bfsQueue.add(curNode.getNextNode(c));
-          curNode.setDFATransition(c, curNode.getNextNode(c));
-        } else {
-          curNode.setDFATransition(c, curNode.getFail().getDFATransition(c));
-        }
+      ACTrieNode current = bfsQueue.poll();
+      current.outputLink = outputLinkThrough(current.getFail());
+      if (current.keywordId == -1) {
+        pushFailChildren(bfsQueue, current);
+      }
+    }
+  }
+
+  private void buildInverseFailureFunction() {
+    firstFailChild = new int[0];
+    ensureInverseFailureCapacity(trieNodes.size());
+    Arrays.fill(firstFailChild, -1);
+    for (nodeType node : trieNodes) {
+      if (node != rootNode) {
+        linkFailChild(node.getFail().id, node.id);
       }
     }
   }
+
+  private void ensureInverseFailureCapacity(int capacity) {
+    if (firstFailChild.length < capacity) {
+      int newLength = Math.max(capacity, firstFailChild.length * 2);
+      firstFailChild = Arrays.copyOf(firstFailChild, newLength);
+      nextFailSibling = nextFailSibling == null ? new int[newLength]
+                            : Arrays.copyOf(nextFailSibling, newLength);
+      previousFailSibling = previousFailSibling == null ? new int[newLength]
+                                : Arrays.copyOf(previousFailSibling, newLength);
+    }
+  }
+
+  private void linkFailChild(int fail, int child) {
+    int first = firstFailChild[fail];
+    nextFailSibling[child] = first;
+    previousFailSibling[child] = -1;
+    if (first != -1) {
+      previousFailSibling[first] = child;
+    }
+    firstFailChild[fail] = child;
+  }
+
+  private void unlinkFailChild(int fail, int child) {
+    int previous = previousFailSibling[child];
+    int next = nextFailSibling[child];
+    if (previous == -1) {
+      firstFailChild[fail] = next;
+    } else {
+      nextFailSibling[previous] = next;
+    }
+    if (next != -1) {
+      previousFailSibling[next] = previous;
+    }
+  }
+
+  private void pushFailChildren(Deque<ACTrieNode> deque, ACTrieNode node) {
+    for (int child = firstFailChild[node.id]; child != -1; child = nextFailSibling[child]) {
+      deque.add(trieNodes.get(child));
+    }
+  }
 }
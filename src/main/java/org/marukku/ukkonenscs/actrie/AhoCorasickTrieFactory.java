@@ -7,9 +7,12 @@ package org.marukku.ukkonenscs.actrie;
 
 import org.marukku.ukkonenscs.alphabet.LanguageParameter;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.marukku.ukkonenscs.metrics.BuildListener;
 import org.marukku.ukkonenscs.trienodes.ACTrieNode;
 import org.marukku.ukkonenscs.trienodes.ACTrieNodeFactory;
 import org.marukku.ukkonenscs.trienodes.AbstractACNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
 
 /**
  * A Factory to create AhoCorasickTries.
@@ -29,7 +32,8 @@ public class AhoCorasickTrieFactory {
    */
   public static AhoCorasickTrie<ACTrieNode> createAhoCorasickTrieFromParams(List<String> keys,
       LanguageParameter parameters) {
-    return new AhoCorasickTrie<>(keys, parameters, new ACTrieNodeFactory());
+    return new AhoCorasickTrie<>(keys, parameters, new ACTrieNodeFactory(), DFAMode.EAGER, true,
+        null, null);
   }
 
 
@@ -49,6 +53,147 @@ public class AhoCorasickTrieFactory {
       createAhoCorasickTrieFromParamsWithNodeFactory(
         List<String> keys,
         LanguageParameter parameters, AbstractACNodeFactory<T> factory) {
-    return new AhoCorasickTrie<>(keys, parameters, factory);
+    return new AhoCorasickTrie<>(keys, parameters, factory, DFAMode.EAGER, true, null, null);
+  }
+
+  /**
+   * Creates the AhoCorasickTrie using a custom node type and builds its DFA according to dfaMode.
+   * Use {@link DFAMode#LAZY} if the DFA is not needed, i.e. when only the goto and failure
+   * functions are used.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the {@link
+   *                   AhoCorasickTrie}
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @param factory    An implementation of {@link AbstractACNodeFactory} defining the creation of
+   *                   new nodes
+   * @param dfaMode    the {@link DFAMode} of the trie
+   * @param <T>        The node type created by the factory.
+   * @return the new {@link AhoCorasickTrie}
+   */
+  public static <T extends ACTrieNode> AhoCorasickTrie<T>
+      createAhoCorasickTrieFromParamsWithNodeFactory(
+        List<String> keys,
+        LanguageParameter parameters, AbstractACNodeFactory<T> factory, DFAMode dfaMode) {
+    return new AhoCorasickTrie<>(keys, parameters, factory, dfaMode, true, null, null);
+  }
+
+  /**
+   * Creates the AhoCorasickTrie like createAhoCorasickTrieFromParamsWithNodeFactory and reports
+   * the duration, allocation and size of its construction phases to listener.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the {@link
+   *                   AhoCorasickTrie}
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @param factory    An implementation of {@link AbstractACNodeFactory} defining the creation of
+   *                   new nodes
+   * @param dfaMode    the {@link DFAMode} of the trie
+   * @param listener   the {@link BuildListener} receiving the measurements
+   * @param <T>        The node type created by the factory.
+   * @return the new {@link AhoCorasickTrie}
+   */
+  public static <T extends ACTrieNode> AhoCorasickTrie<T>
+      createAhoCorasickTrieFromParamsWithNodeFactory(
+        List<String> keys,
+        LanguageParameter parameters, AbstractACNodeFactory<T> factory, DFAMode dfaMode,
+        BuildListener listener) {
+    return new AhoCorasickTrie<>(keys, parameters, factory, dfaMode, true, null, listener);
+  }
+
+  /**
+   * Creates the AhoCorasickTrie with the {@link TransitionStrategy} projected to need the least
+   * memory (see {@link TrieFootprint}), or fails before building anything if even that one would
+   * exceed maxBytes. Use this instead of running into an OutOfMemoryError halfway through the
+   * construction, i.e. for large alphabets.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the {@link
+   *                   AhoCorasickTrie}
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @param dfaMode    the {@link DFAMode} of the trie
+   * @param maxBytes   the number of bytes the trie may occupy
+   * @return the new {@link AhoCorasickTrie}
+   * @throws IllegalArgumentException if the trie is projected to exceed maxBytes
+   */
+  public static AhoCorasickTrie<ACTrieNode> createAhoCorasickTrieWithinBudget(List<String> keys,
+      LanguageParameter parameters, DFAMode dfaMode, long maxBytes) {
+    TrieFootprint footprint = TrieFootprint.estimate(keys, parameters);
+    TransitionStrategy strategy = footprint.getCheapestStrategy(dfaMode);
+    footprint.requireWithinBudget(footprint.estimateNodeGraphBytes(strategy, dfaMode), maxBytes,
+        strategy + " " + dfaMode + " trie");
+    return new AhoCorasickTrie<>(keys, parameters, new ACTrieNodeFactory(strategy), dfaMode,
+        true, null, null);
+  }
+
+  /**
+   * Creates the AhoCorasickTrie using a custom node type and builds it using pool. The keys are
+   * partitioned by their first symbol, and the subtries of the partitions are built concurrently.
+   * The result is identical to the trie built by createAhoCorasickTrieFromParamsWithNodeFactory.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the {@link
+   *                   AhoCorasickTrie}
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @param factory    An implementation of {@link AbstractACNodeFactory} defining the creation of
+   *                   new nodes; it is called concurrently
+   * @param dfaMode    the {@link DFAMode} of the trie
+   * @param pool       the {@link ForkJoinPool} building the trie
+   * @param <T>        The node type created by the factory.
+   * @return the new {@link AhoCorasickTrie}
+   */
+  public static <T extends ACTrieNode> AhoCorasickTrie<T>
+      createAhoCorasickTrieInParallel(
+        List<String> keys,
+        LanguageParameter parameters, AbstractACNodeFactory<T> factory, DFAMode dfaMode,
+        ForkJoinPool pool) {
+    return new AhoCorasickTrie<>(keys, parameters, factory, dfaMode, true, pool, null);
+  }
+
+  /**
+   * Creates the AhoCorasickTrie like createAhoCorasickTrieInParallel and reports the duration and
+   * size of its construction phases to listener. Allocations are those of the calling thread only.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the {@link
+   *                   AhoCorasickTrie}
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @param factory    An implementation of {@link AbstractACNodeFactory} defining the creation of
+   *                   new nodes; it is called concurrently
+   * @param dfaMode    the {@link DFAMode} of the trie
+   * @param pool       the {@link ForkJoinPool} building the trie
+   * @param listener   the {@link BuildListener} receiving the measurements
+   * @param <T>        The node type created by the factory.
+   * @return the new {@link AhoCorasickTrie}
+   */
+  public static <T extends ACTrieNode> AhoCorasickTrie<T>
+      createAhoCorasickTrieInParallel(
+        List<String> keys,
+        LanguageParameter parameters, AbstractACNodeFactory<T> factory, DFAMode dfaMode,
+        ForkJoinPool pool, BuildListener listener) {
+    return new AhoCorasickTrie<>(keys, parameters, factory, dfaMode, true, pool, listener);
+  }
+
+  /**
+   * Creates a {@link DoubleArrayAhoCorasickTrie}, a compiled alternative to the node-object graph
+   * of an {@link AhoCorasickTrie}. It stores the goto, fail and DFA functions in flat int arrays,
+   * which needs far less memory and is more cache friendly for large dictionaries.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the trie
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @return the new {@link DoubleArrayAhoCorasickTrie}
+   */
+  public static DoubleArrayAhoCorasickTrie createDoubleArrayTrieFromParams(List<String> keys,
+      LanguageParameter parameters) {
+    return new DoubleArrayAhoCorasickTrie(keys, parameters, true);
+  }
+
+  /**
+   * Creates a {@link DoubleArrayAhoCorasickTrie} that only contains the goto and fail functions.
+   * This is useful for algorithms (like Ukkonen's SCS finder) which never use the DFA. DFA
+   * transitions of such a trie are computed by following the failure function.
+   *
+   * @param keys       List of Strings - the keys we want to use to build the trie
+   * @param parameters a {@link LanguageParameter} defining the language used for the keys
+   * @return the new {@link DoubleArrayAhoCorasickTrie}
+   */
+  public static DoubleArrayAhoCorasickTrie createDoubleArrayTrieWithoutDFA(List<String> keys,
+      LanguageParameter parameters) {
+    return new DoubleArrayAhoCorasickTrie(keys, parameters, false);
   }
 }
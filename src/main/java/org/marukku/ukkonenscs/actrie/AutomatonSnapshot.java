@@ -0,0 +1,233 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Writes a compiled {@link DoubleArrayAhoCorasickTrie} to a binary snapshot file and loads it back
+ * by memory-mapping the file. Loading neither rebuilds the trie nor copies its tables onto the
+ * heap, so a matcher can start scanning right away:
+ * <pre>
+ *   {@code
+ *   AutomatonSnapshot.write(AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(keys, params),
+ *       path);
+ *   KeywordTextMatcher matcher = KeywordTextMatcher.createFromAutomaton(
+ *       AutomatonSnapshot.load(path));
+ *   }
+ * </pre>
+ *
+ * <p>File format (version 1, all numbers are little-endian 32 bit ints):
+ * <br>header: magic, version, flags (bit 0: the DFA is stored), alphabet size, state count,
+ * keyword count, length of the goto arrays, length of the DFA arrays, number of keyword chars;
+ * <br>the alphabet in code order (the char mapped to 0 first);
+ * <br>base, check, next, fail, keyword ids and output links;
+ * <br>if the DFA is stored: the root transitions, dfaBase, dfaCheck and dfaNext;
+ * <br>the keywords: keyword count + 1 offsets into the keyword chars, then the chars
+ * (little-endian UTF-16).
+ *
+ * <p>The language of a loaded automaton maps the stored alphabet exactly like the original one
+ * did. Snapshots are limited to 2GB, the size of a single mapped buffer.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class AutomatonSnapshot {
+
+  static final int MAGIC = 0x41434441; // "ACDA"
+  static final int VERSION = 1;
+  static final int FLAG_DFA = 1;
+  static final int HEADER_INTS = 9;
+
+  private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+  private AutomatonSnapshot() {
+  }
+
+  /**
+   * Writes trie to a snapshot file at path, replacing any existing file.
+   *
+   * @param trie the automaton we want to store
+   * @param path the path of the snapshot file
+   * @throws IOException if writing fails
+   */
+  public static void write(DoubleArrayAhoCorasickTrie trie, Path path) throws IOException {
+    LanguageParameter parameters = trie.getParameters();
+    int alphabetSize = parameters.getAlphabetSize();
+    int[] alphabet = new int[alphabetSize];
+    for (char c : parameters.getAlphabet()) {
+      alphabet[parameters.map(c)] = c;
+    }
+
+    int keywordCount = trie.getKeywordCount();
+    int[] keywordOffsets = new int[keywordCount + 1];
+    for (int i = 0; i < keywordCount; i++) {
+      keywordOffsets[i + 1] = Math.addExact(keywordOffsets[i], trie.getKeywordLength(i));
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      writeInts(channel, buffer, new int[]{MAGIC, VERSION, trie.hasDFA() ? FLAG_DFA : 0,
+          alphabetSize, trie.stateCount, keywordCount, trie.check.length,
+          trie.hasDFA() ? trie.dfaCheck.length : 0, keywordOffsets[keywordCount]});
+      writeInts(channel, buffer, alphabet);
+      writeInts(channel, buffer, trie.base);
+      writeInts(channel, buffer, trie.check);
+      writeInts(channel, buffer, trie.next);
+      writeInts(channel, buffer, trie.fail);
+      writeInts(channel, buffer, trie.keywordIds);
+      writeInts(channel, buffer, trie.outputLinks);
+      if (trie.hasDFA()) {
+        writeInts(channel, buffer, trie.rootTransitions);
+        writeInts(channel, buffer, trie.dfaBase);
+        writeInts(channel, buffer, trie.dfaCheck);
+        writeInts(channel, buffer, trie.dfaNext);
+      }
+      writeInts(channel, buffer, keywordOffsets);
+      for (int i = 0; i < keywordCount; i++) {
+        String keyword = trie.getKeyword(i);
+        for (int j = 0; j < keyword.length(); j++) {
+          if (buffer.remaining() < Character.BYTES) {
+            drain(channel, buffer);
+          }
+          buffer.putChar(keyword.charAt(j));
+        }
+      }
+      drain(channel, buffer);
+    }
+  }
+
+  /**
+   * Memory-maps the snapshot file at path and returns the automaton stored in it.
+   *
+   * @param path the path of the snapshot file
+   * @return the stored automaton
+   * @throws IOException if the file cannot be mapped or is not a snapshot of a supported version
+   */
+  public static AhoCorasickAutomaton load(Path path) throws IOException {
+    MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot " + path + " is larger than 2GB");
+      }
+      mapped = channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+    mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+    if (mapped.capacity() < HEADER_INTS * Integer.BYTES || mapped.getInt(0) != MAGIC) {
+      throw new IOException(path + " is not an automaton snapshot");
+    }
+    if (mapped.getInt(4) != VERSION) {
+      throw new IOException("Unsupported snapshot version " + mapped.getInt(4) + " in " + path);
+    }
+
+    int[] header = new int[HEADER_INTS];
+    for (int i = 0; i < HEADER_INTS; i++) {
+      header[i] = mapped.getInt(i * Integer.BYTES);
+    }
+    SectionReader reader = new SectionReader(mapped, HEADER_INTS * Integer.BYTES);
+    boolean hasDFA = (header[2] & FLAG_DFA) != 0;
+    int alphabetSize = header[3];
+    int stateCount = header[4];
+    int keywordCount = header[5];
+    int gotoLength = header[6];
+    int dfaLength = header[7];
+    int keywordCharCount = header[8];
+
+    IntBuffer alphabetCodes = reader.nextInts(alphabetSize);
+    List<Character> alphabet = new ArrayList<>(alphabetSize);
+    for (int code = 0; code < alphabetSize; code++) {
+      alphabet.add((char) alphabetCodes.get(code));
+    }
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+
+    IntBuffer base = reader.nextInts(stateCount);
+    IntBuffer check = reader.nextInts(gotoLength);
+    IntBuffer next = reader.nextInts(gotoLength);
+    IntBuffer fail = reader.nextInts(stateCount);
+    IntBuffer keywordIds = reader.nextInts(stateCount);
+    IntBuffer outputLinks = reader.nextInts(stateCount);
+    IntBuffer rootTransitions = hasDFA ? reader.nextInts(alphabetSize) : null;
+    IntBuffer dfaBase = hasDFA ? reader.nextInts(stateCount) : null;
+    IntBuffer dfaCheck = hasDFA ? reader.nextInts(dfaLength) : null;
+    IntBuffer dfaNext = hasDFA ? reader.nextInts(dfaLength) : null;
+    IntBuffer keywordOffsets = reader.nextInts(keywordCount + 1);
+    CharBuffer keywordChars = reader.nextChars(keywordCharCount);
+
+    return new MappedAhoCorasickAutomaton(parameters, stateCount, base, check, next, fail,
+        keywordIds, outputLinks, rootTransitions, dfaBase, dfaCheck, dfaNext, keywordOffsets,
+        keywordChars);
+  }
+
+  private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values)
+      throws IOException {
+    for (int value : values) {
+      if (buffer.remaining() < Integer.BYTES) {
+        drain(channel, buffer);
+      }
+      buffer.putInt(value);
+    }
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Cuts consecutive sections out of the mapped file.
+   */
+  private static final class SectionReader {
+
+    private final MappedByteBuffer mapped;
+    private int position;
+
+    SectionReader(MappedByteBuffer mapped, int position) {
+      this.mapped = mapped;
+      this.position = position;
+    }
+
+    private ByteBuffer nextSection(long bytes) throws IOException {
+      if (bytes < 0) {
+        throw new IOException("Invalid section length in automaton snapshot");
+      }
+      if (bytes > mapped.capacity() - position) {
+        throw new IOException("Truncated automaton snapshot");
+      }
+      ByteBuffer section = mapped.duplicate();
+      section.position(position).limit(position + (int) bytes);
+      position += (int) bytes;
+      return section.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    IntBuffer nextInts(int count) throws IOException {
+      return nextSection((long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    CharBuffer nextChars(int count) throws IOException {
+      return nextSection((long) count * Character.BYTES).asCharBuffer();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+/**
+ * Defines when an {@link AhoCorasickTrie} computes the DFA transitions of its nodes.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public enum DFAMode {
+
+  /**
+   * The DFA is built for all nodes while the trie is created. This is the right choice for
+   * matchers which scan long texts and visit most states.
+   */
+  EAGER,
+
+  /**
+   * The trie only builds the goto and failure functions and never allocates DFA tables up front.
+   * A DFA transition is computed from the goto and failure functions the first time it is
+   * requested and memoized in its node. Use this if the DFA is not needed at all (i.e. for
+   * Ukkonen's algorithm), or if a matcher only touches a few states.
+   */
+  LAZY
+}
@@ -0,0 +1,458 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+
+/**
+ * A compiled Aho-Corasick automaton which stores the goto, fail and DFA functions in flat int
+ * arrays instead of a graph of {@link org.marukku.ukkonenscs.trienodes.ACTrieNode}s. It is built
+ * directly from the keys and never creates node objects.
+ *
+ * <p>States are numbered in breadth-first order (children in the order of their mapped
+ * characters); the root is state 0. The goto function is a double-array: the child of state s for
+ * the mapped character c is next[base[s] + c] iff check[base[s] + c] == s. The DFA is stored the
+ * same way, but only for the transitions that differ from the transitions of the root state;
+ * everything else falls back to a dense row for the root. This keeps the DFA roughly proportional
+ * to the number of trie edges instead of states x alphabet size.
+ *
+ * <p>The trie is immutable (frozen): all its tables are final and it keeps its own copy of the
+ * keys. Any number of threads can therefore scan with it concurrently without locking, see {@link
+ * VersionedKeywordTextMatcher} for replacing it while they do.
+ *
+ * <p>Example Usage:
+ * <pre>
+ *   {@code
+ *   DoubleArrayAhoCorasickTrie trie = AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(
+ *         keys, LanguageParameterFactory.defaultParameter);
+ *   KeywordTextMatcher matcher = KeywordTextMatcher.createFromAutomaton(trie);
+ *   }
+ * </pre>
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class DoubleArrayAhoCorasickTrie implements AhoCorasickAutomaton {
+
+  private final List<String> keys;
+  private final LanguageParameter parameters;
+  final int stateCount;
+
+  //Goto function
+  final int[] base;
+  final int[] check;
+  final int[] next;
+
+  final int[] fail;
+  final int[] depths;
+  final int[] keywordIds;
+  final int[] outputLinks;
+
+  //DFA (null if it was not built)
+  final int[] rootTransitions;
+  final int[] dfaBase;
+  final int[] dfaCheck;
+  final int[] dfaNext;
+
+  DoubleArrayAhoCorasickTrie(List<String> keys, LanguageParameter parameters, boolean buildDFA) {
+    TrieConstructionEvent event = new TrieConstructionEvent();
+    event.begin();
+    this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+    this.parameters = parameters;
+
+    //Build a temporary trie, numbered in insertion order
+    EdgeMap edges = new EdgeMap();
+    int[] insertionParent = new int[16];
+    int[] insertionCode = new int[16];
+    int[] insertionKeyword = new int[16];
+    insertionKeyword[0] = -1;
+    int nodeCount = 1;
+
+    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+      String key = keys.get(keyIndex);
+      int current = 0;
+
+      for (int i = 0; i < key.length(); i++) {
+        int code = mapChecked(key.charAt(i));
+        int child = edges.get(current, code);
+        if (child == -1) {
+          if (nodeCount == insertionParent.length) {
+            int newLength = nodeCount + (nodeCount >> 1);
+            insertionParent = Arrays.copyOf(insertionParent, newLength);
+            insertionCode = Arrays.copyOf(insertionCode, newLength);
+            insertionKeyword = Arrays.copyOf(insertionKeyword, newLength);
+          }
+          child = nodeCount++;
+          insertionParent[child] = current;
+          insertionCode[child] = code;
+          insertionKeyword[child] = -1;
+          edges.put(current, code, child);
+        }
+        current = child;
+      }
+
+      if (current != 0 && insertionKeyword[current] == -1) {
+        insertionKeyword[current] = keyIndex;
+      }
+    }
+    stateCount = nodeCount;
+
+    //Renumber the nodes in bfs order, children sorted by their code
+    long[] sortedEdges = new long[nodeCount - 1];
+    for (int child = 1; child < nodeCount; child++) {
+      sortedEdges[child - 1] = ((long) insertionParent[child] << 32) | insertionCode[child];
+    }
+    Arrays.sort(sortedEdges);
+    int[] edgeStart = new int[nodeCount + 1];
+    for (long edge : sortedEdges) {
+      edgeStart[(int) (edge >>> 32) + 1]++;
+    }
+    for (int i = 0; i < nodeCount; i++) {
+      edgeStart[i + 1] += edgeStart[i];
+    }
+
+    int[] bfsOrder = new int[nodeCount];
+    int[] firstChild = new int[nodeCount + 1];
+    int[] codes = new int[nodeCount];
+    int tail = 1;
+    for (int head = 0; head < nodeCount; head++) {
+      int node = bfsOrder[head];
+      firstChild[head] = tail;
+      for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+        int code = (int) sortedEdges[e];
+        codes[tail] = code;
+        bfsOrder[tail++] = edges.get(node, code);
+      }
+    }
+    firstChild[nodeCount] = tail;
+
+    keywordIds = new int[nodeCount];
+    depths = new int[nodeCount];
+    for (int state = 0; state < nodeCount; state++) {
+      keywordIds[state] = insertionKeyword[bfsOrder[state]];
+      for (int child = firstChild[state]; child < firstChild[state + 1]; child++) {
+        depths[child] = depths[state] + 1;
+      }
+    }
+
+    //Pack the goto function; children of a state are consecutive states in bfs order
+    base = new int[nodeCount];
+    DoubleArrayPacker gotoPacker = new DoubleArrayPacker(nodeCount + nodeCount / 4);
+    for (int state = 0; state < nodeCount; state++) {
+      int from = firstChild[state];
+      int to = firstChild[state + 1];
+      base[state] = gotoPacker.place(state, codes, from, to);
+      for (int child = from; child < to; child++) {
+        gotoPacker.setNext(base[state] + codes[child], child);
+      }
+    }
+    check = gotoPacker.getCheck();
+    next = gotoPacker.getNext();
+
+    fail = new int[nodeCount];
+    outputLinks = new int[nodeCount];
+    calculateFailureFunction(firstChild, codes);
+
+    if (buildDFA) {
+      rootTransitions = new int[parameters.getAlphabetSize()];
+      dfaBase = new int[nodeCount];
+      DoubleArrayPacker dfaPacker = new DoubleArrayPacker(nodeCount * 2);
+      buildDFA(firstChild, codes, dfaPacker);
+      dfaCheck = dfaPacker.getCheck();
+      dfaNext = dfaPacker.getNext();
+    } else {
+      rootTransitions = null;
+      dfaBase = null;
+      dfaCheck = null;
+      dfaNext = null;
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.automaton = getClass().getSimpleName();
+      event.dfaMode = buildDFA ? DFAMode.EAGER.name() : "NONE";
+      event.keywordCount = keys.size();
+      event.nodeCount = stateCount;
+      event.commit();
+    }
+  }
+
+  private int mapChecked(char input) {
+    int code = parameters.map(input);
+    if (code < 0 || code >= parameters.getAlphabetSize()) {
+      throw new IllegalArgumentException(
+          "Character '" + input + "' is not part of the alphabet of the language parameters");
+    }
+    return code;
+  }
+
+  private int gotoCode(int state, int code) {
+    int cell = base[state] + code;
+    if (cell < check.length && check[cell] == state) {
+      return next[cell];
+    }
+    return -1;
+  }
+
+  /**
+   * Calculates the failure function and the output links. Since states are numbered in bfs order
+   * and fail states are always shallower, a single pass over all states suffices.
+   */
+  private void calculateFailureFunction(int[] firstChild, int[] codes) {
+    fail[0] = 0;
+    outputLinks[0] = -1;
+
+    for (int parent = 0; parent < stateCount; parent++) {
+      for (int child = firstChild[parent]; child < firstChild[parent + 1]; child++) {
+        int failState = 0;
+
+        if (parent != 0) {
+          int candidate = fail[parent];
+          //Terminates because we stop at the root
+          while (candidate != 0 && gotoCode(candidate, codes[child]) == -1) {
+            candidate = fail[candidate];
+          }
+          int target = gotoCode(candidate, codes[child]);
+          failState = target == -1 ? 0 : target;
+        }
+
+        fail[child] = failState;
+        outputLinks[child] = keywordIds[failState] != -1 ? failState : outputLinks[failState];
+      }
+    }
+  }
+
+  /**
+   * Builds the DFA rows. The row of state s differs from the row of its fail state only in the
+   * children of s, so the rows (stored relative to the root row) can be derived by merging the
+   * children of s into the row of its fail state.
+   */
+  private void buildDFA(int[] firstChild, int[] codes, DoubleArrayPacker packer) {
+    Arrays.fill(rootTransitions, 0);
+    for (int child = firstChild[0]; child < firstChild[1]; child++) {
+      rootTransitions[codes[child]] = child;
+    }
+
+    int[] rowStart = new int[stateCount + 1];
+    int[] rowCodes = new int[Math.max(stateCount, 16)];
+    int[] rowTargets = new int[rowCodes.length];
+    int rowSize = 0;
+    rowStart[1] = 0; //The root has no entries relative to itself
+
+    for (int state = 1; state < stateCount; state++) {
+      int childIndex = firstChild[state];
+      int childEnd = firstChild[state + 1];
+      int failIndex = 0;
+      int failEnd = 0;
+      if (fail[state] != 0) {
+        failIndex = rowStart[fail[state]];
+        failEnd = rowStart[fail[state] + 1];
+      }
+
+      int maximalRowSize = rowSize + (childEnd - childIndex) + (failEnd - failIndex);
+      if (maximalRowSize > rowCodes.length) {
+        int newLength = Math.max(maximalRowSize, rowCodes.length + (rowCodes.length >> 1));
+        rowCodes = Arrays.copyOf(rowCodes, newLength);
+        rowTargets = Arrays.copyOf(rowTargets, newLength);
+      }
+
+      //Merge the sorted children with the sorted row of the fail state
+      while (childIndex < childEnd || failIndex < failEnd) {
+        if (failIndex == failEnd
+                || (childIndex < childEnd && codes[childIndex] <= rowCodes[failIndex])) {
+          if (failIndex < failEnd && codes[childIndex] == rowCodes[failIndex]) {
+            failIndex++;
+          }
+          rowCodes[rowSize] = codes[childIndex];
+          rowTargets[rowSize++] = childIndex++;
+        } else {
+          rowCodes[rowSize] = rowCodes[failIndex];
+          rowTargets[rowSize++] = rowTargets[failIndex++];
+        }
+      }
+      rowStart[state + 1] = rowSize;
+    }
+
+    for (int state = 0; state < stateCount; state++) {
+      dfaBase[state] = packer.place(state, rowCodes, rowStart[state], rowStart[state + 1]);
+      for (int i = rowStart[state]; i < rowStart[state + 1]; i++) {
+        packer.setNext(dfaBase[state] + rowCodes[i], rowTargets[i]);
+      }
+    }
+  }
+
+  //TRIE FUNCTIONS
+
+  /**
+   * Returns the child of state in the trie for input, or -1 if there is no such child. Unlike the
+   * root node of an {@link AhoCorasickTrie}, the root state has no self loops.
+   *
+   * @param state the current state
+   * @param input Character used to determine the next state
+   * @return the next state in the trie or -1
+   */
+  public int getNextState(int state, char input) {
+    return gotoCode(state, parameters.map(input));
+  }
+
+  /**
+   * Returns the fail state of state. It represents the longest proper suffix of the string of
+   * state which is a prefix of a key.
+   *
+   * @param state the state we want to query
+   * @return the fail state
+   */
+  public int getFail(int state) {
+    return fail[state];
+  }
+
+  /**
+   * Returns whether the DFA was built. If it was not built, getDFATransition follows the failure
+   * function instead.
+   *
+   * @return true iff the DFA tables exist
+   */
+  public boolean hasDFA() {
+    return dfaCheck != null;
+  }
+
+  //AUTOMATON FUNCTIONS
+
+  @Override
+  public int getRootState() {
+    return 0;
+  }
+
+  @Override
+  public int getStateCount() {
+    return stateCount;
+  }
+
+  @Override
+  public int getDFATransition(int state, char input) {
+    return getDFATransitionByCode(state, parameters.map(input));
+  }
+
+  @Override
+  public int getDFATransitionByCode(int state, int code) {
+    if (dfaCheck == null) {
+      while (true) {
+        int target = gotoCode(state, code);
+        if (target != -1) {
+          return target;
+        }
+        if (state == 0) {
+          return 0;
+        }
+        state = fail[state];
+      }
+    }
+
+    int cell = dfaBase[state] + code;
+    if (cell < dfaCheck.length && dfaCheck[cell] == state) {
+      return dfaNext[cell];
+    }
+    return rootTransitions[code];
+  }
+
+  @Override
+  public int getStateDepth(int state) {
+    return depths[state];
+  }
+
+  @Override
+  public int getKeywordId(int state) {
+    return keywordIds[state];
+  }
+
+  @Override
+  public int getOutputLink(int state) {
+    return outputLinks[state];
+  }
+
+  @Override
+  public String getKeyword(int keywordId) {
+    return keys.get(keywordId);
+  }
+
+  @Override
+  public int getKeywordCount() {
+    return keys.size();
+  }
+
+  @Override
+  public LanguageParameter getParameters() {
+    return parameters;
+  }
+
+  /**
+   * A minimal open addressing hash map from (parent, code) pairs to child nodes. It is only used
+   * while the temporary trie is built.
+   */
+  private static final class EdgeMap {
+
+    private long[] keys = new long[64];
+    private int[] values = new int[64];
+    private int size = 0;
+
+    EdgeMap() {
+      Arrays.fill(keys, -1);
+    }
+
+    private static int slot(long key, int mask) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    int get(int parent, int code) {
+      long key = ((long) parent << 32) | code;
+      int mask = keys.length - 1;
+      for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          return values[i];
+        }
+        if (keys[i] == -1) {
+          return -1;
+        }
+      }
+    }
+
+    void put(int parent, int code, int child) {
+      if (2 * (size + 1) > keys.length) {
+        resize();
+      }
+      insert(((long) parent << 32) | code, child);
+      size++;
+    }
+
+    private void insert(long key, int value) {
+      int mask = keys.length - 1;
+      int i = slot(key, mask);
+      while (keys[i] != -1) {
+        i = (i + 1) & mask;
+      }
+      keys[i] = key;
+      values[i] = value;
+    }
+
+    private void resize() {
+      long[] oldKeys = keys;
+      int[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new int[oldKeys.length * 2];
+      Arrays.fill(keys, -1);
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != -1) {
+          insert(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+  }
+}
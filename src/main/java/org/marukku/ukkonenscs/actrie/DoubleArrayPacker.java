@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.Arrays;
+
+/**
+ * Packs sparse transition rows into shared base/check/next arrays (a double-array with an
+ * additional next column). A row of state s with base b stores the transition for code c in cell
+ * b + c, and check[b + c] == s marks the cell as owned by s.
+ *
+ * <p>Rows are placed first-fit, starting from the first free cell. Rows that do not fit into a hole
+ * after a bounded number of attempts are appended behind the used cells.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+class DoubleArrayPacker {
+
+  private static final int MAX_PLACEMENT_ATTEMPTS = 256;
+
+  private int[] check;
+  private int[] next;
+  private int firstFree = 0;
+  private int size = 0;
+
+  DoubleArrayPacker(int initialCapacity) {
+    check = new int[Math.max(initialCapacity, 16)];
+    next = new int[check.length];
+    Arrays.fill(check, -1);
+  }
+
+  /**
+   * Finds a base for the row of state such that all cells base + codes[i] (from &lt;= i &lt; to)
+   * are free, claims these cells and returns the base. codes must be sorted in ascending order.
+   * The targets of the claimed cells need to be set using setNext afterwards.
+   */
+  int place(int state, int[] codes, int from, int to) {
+    if (from == to) {
+      return 0;
+    }
+
+    while (firstFree < check.length && check[firstFree] != -1) {
+      firstFree++;
+    }
+
+    int position = firstFree;
+    int base;
+    int attempts = 0;
+    while (true) {
+      base = position - codes[from];
+      if (base >= 0 && fits(base, codes, from, to)) {
+        break;
+      }
+      if (++attempts > MAX_PLACEMENT_ATTEMPTS) {
+        // Give up on filling holes and append the row behind all used cells
+        base = Math.max(size - codes[from], 0);
+        if (!fits(base, codes, from, to)) {
+          base = size;
+        }
+        break;
+      }
+      position++;
+      while (position < check.length && check[position] != -1) {
+        position++;
+      }
+    }
+
+    ensureCapacity(base + codes[to - 1] + 1);
+    for (int i = from; i < to; i++) {
+      check[base + codes[i]] = state;
+    }
+    size = Math.max(size, base + codes[to - 1] + 1);
+    return base;
+  }
+
+  void setNext(int cell, int target) {
+    next[cell] = target;
+  }
+
+  private boolean fits(int base, int[] codes, int from, int to) {
+    for (int i = from; i < to; i++) {
+      int cell = base + codes[i];
+      if (cell < check.length && check[cell] != -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > check.length) {
+      int oldLength = check.length;
+      int newLength = Math.max(capacity, oldLength + (oldLength >> 1));
+      check = Arrays.copyOf(check, newLength);
+      next = Arrays.copyOf(next, newLength);
+      Arrays.fill(check, oldLength, newLength, -1);
+    }
+  }
+
+  /**
+   * Returns the check column trimmed to the used cells.
+   */
+  int[] getCheck() {
+    return Arrays.copyOf(check, size);
+  }
+
+  /**
+   * Returns the next column trimmed to the used cells.
+   */
+  int[] getNext() {
+    return Arrays.copyOf(next, size);
+  }
+}
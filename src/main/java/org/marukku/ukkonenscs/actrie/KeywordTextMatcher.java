@@ -5,10 +5,27 @@
 
 package org.marukku.ukkonenscs.actrie;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import org.marukku.ukkonenscs.alphabet.LanguageParameter;
 import java.util.ArrayList;
 import java.util.List;
-import org.marukku.ukkonenscs.trienodes.ACTrieNode;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.marukku.ukkonenscs.trienodes.ACTrieNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
 
 /**
  * KeywordTextMatcher implements the basic use case of the {@link AhoCorasickTrie}. It finds
@@ -22,16 +39,59 @@ import org.marukku.ukkonenscs.trienodes.ACTrieNode;
  *   List<Match> matches = matcher.matchText(text);
  *   }
  *</pre>
+ *
+ * <p>Large texts can be streamed through the matcher instead (see {@link #matchReader},
+ * {@link #matchChannel} and {@link #createSession}); matches are then passed to a
+ * {@link MatchListener} and memory stays constant no matter how large the text is. Matchers over a
+ * byte language (i.e. {@link org.marukku.ukkonenscs.alphabet.LanguageParameterFactory#byteParameter}
+ * or a DNA alphabet) can scan raw bytes and memory-mapped files without decoding them (see {@link
+ * #matchBytes} and {@link #matchFile}).
+ *
+ * <p>A matcher is immutable once created, so it can be shared between threads without locking as
+ * long as its automaton does not change: The factory methods build automata the matcher owns, and
+ * {@link DoubleArrayAhoCorasickTrie}s (see {@link AhoCorasickTrie#freeze()}) and loaded snapshots
+ * are frozen. {@link #matchTextParallel} uses this to scan large texts on all cores, and {@link
+ * VersionedKeywordTextMatcher} to replace the dictionary while scans run.
+ *
+ * <p>Every scan method emits a JDK Flight Recorder event ({@code org.marukku.ukkonenscs.TextScan})
+ * with the scanned length and the number of matches, recorded for scans of 10 ms or more.
  * @author Markus Walder
  * @since 26.12.2020, Sa.
  */
 public class KeywordTextMatcher {
 
-  private AhoCorasickTrie<ACTrieNode> stringMatcher;
+  /**
+   * The size (in chars or bytes) of the buffers used when streaming texts.
+   */
+  private static final int STREAM_BUFFER_SIZE = 1 << 16;
+  /**
+   * The maximal number of bytes of a file mapped at once (a MappedByteBuffer is int-indexed).
+   */
+  private static final long MAPPED_WINDOW_SIZE = 1L << 30;
+  /**
+   * The minimal number of chars scanned by one task of a parallel scan.
+   */
+  private static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 16;
+  /**
+   * The number of chunks per worker of a parallel scan, so that workers finishing early can steal.
+   */
+  private static final int CHUNKS_PER_WORKER = 4;
+
+  private final AhoCorasickAutomaton automaton;
+  private final int[] keywordLengths;
+  private final int maxKeywordLength;
+  private final int[] byteCodes;
 
-  private KeywordTextMatcher(LanguageParameter parameters, List<String> keywords) {
-    stringMatcher = AhoCorasickTrieFactory
-                        .createAhoCorasickTrieFromParams(keywords, parameters);
+  private KeywordTextMatcher(AhoCorasickAutomaton automaton) {
+    this.automaton = automaton;
+    this.byteCodes = MatchSession.resolveByteCodes(automaton);
+    this.keywordLengths = new int[automaton.getKeywordCount()];
+    int maxLength = 0;
+    for (int i = 0; i < keywordLengths.length; i++) {
+      keywordLengths[i] = automaton.getKeywordLength(i);
+      maxLength = Math.max(maxLength, keywordLengths[i]);
+    }
+    this.maxKeywordLength = maxLength;
   }
 
   /**
@@ -44,7 +104,93 @@ public class KeywordTextMatcher {
    */
   public static KeywordTextMatcher createFromParameters(LanguageParameter parameters,
       List<String> keywords) {
-    return new KeywordTextMatcher(parameters, keywords);
+    return new KeywordTextMatcher(new NodeGraphAutomaton(
+        AhoCorasickTrieFactory.createAhoCorasickTrieFromParams(keywords, parameters)));
+  }
+
+  /**
+   * Creates a new {@link KeywordTextMatcher} whose trie nodes store their transitions using
+   * strategy. Use {@link TransitionStrategy#ADAPTIVE} for large alphabets.
+   *
+   * @param parameters the {@link LanguageParameter} we are using
+   * @param keywords   the keywords we want to match with
+   * @param strategy   the {@link TransitionStrategy} of the trie nodes
+   * @return the new {@link KeywordTextMatcher}
+   */
+  public static KeywordTextMatcher createFromParameters(LanguageParameter parameters,
+      List<String> keywords, TransitionStrategy strategy) {
+    return new KeywordTextMatcher(new NodeGraphAutomaton(
+        AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(
+            keywords, parameters, new ACTrieNodeFactory(strategy))));
+  }
+
+  /**
+   * Creates a new {@link KeywordTextMatcher} whose trie computes its DFA according to dfaMode. With
+   * {@link DFAMode#LAZY} the matcher is ready without building the DFA, and transitions are
+   * computed (and memoized) as the scanned texts reach them.
+   *
+   * @param parameters the {@link LanguageParameter} we are using
+   * @param keywords   the keywords we want to match with
+   * @param strategy   the {@link TransitionStrategy} of the trie nodes
+   * @param dfaMode    the {@link DFAMode} of the trie
+   * @return the new {@link KeywordTextMatcher}
+   */
+  public static KeywordTextMatcher createFromParameters(LanguageParameter parameters,
+      List<String> keywords, TransitionStrategy strategy, DFAMode dfaMode) {
+    return new KeywordTextMatcher(new NodeGraphAutomaton(
+        AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(
+            keywords, parameters, new ACTrieNodeFactory(strategy), dfaMode)));
+  }
+
+  /**
+   * Creates a new {@link KeywordTextMatcher} backed by a {@link DoubleArrayAhoCorasickTrie}
+   * instead of a graph of node objects. It finds the same matches, but needs much less memory for
+   * large dictionaries.
+   *
+   * @param parameters the {@link LanguageParameter} we are using
+   * @param keywords   the keywords we want to match with
+   * @return the new {@link KeywordTextMatcher}
+   */
+  public static KeywordTextMatcher createDoubleArrayFromParameters(LanguageParameter parameters,
+      List<String> keywords) {
+    return new KeywordTextMatcher(
+        AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(keywords, parameters));
+  }
+
+  /**
+   * Creates a new {@link KeywordTextMatcher} backed by the automaton which is projected to need
+   * the least memory (see {@link TrieFootprint}): a node graph with dense or adaptive transitions,
+   * or a {@link DoubleArrayAhoCorasickTrie}. Nothing is built if even the cheapest one would exceed
+   * maxBytes.
+   *
+   * @param parameters the {@link LanguageParameter} we are using
+   * @param keywords   the keywords we want to match with
+   * @param maxBytes   the number of bytes the automaton may occupy
+   * @return the new {@link KeywordTextMatcher}
+   * @throws IllegalArgumentException if every automaton is projected to exceed maxBytes
+   */
+  public static KeywordTextMatcher createWithinBudget(LanguageParameter parameters,
+      List<String> keywords, long maxBytes) {
+    TrieFootprint footprint = TrieFootprint.estimate(keywords, parameters);
+    TransitionStrategy strategy = footprint.getCheapestStrategy(DFAMode.EAGER);
+    long nodeGraphBytes = footprint.estimateNodeGraphBytes(strategy, DFAMode.EAGER);
+    long doubleArrayBytes = footprint.estimateDoubleArrayBytes(true);
+    if (doubleArrayBytes <= nodeGraphBytes) {
+      footprint.requireWithinBudget(doubleArrayBytes, maxBytes, "double-array automaton");
+      return createDoubleArrayFromParameters(parameters, keywords);
+    }
+    footprint.requireWithinBudget(nodeGraphBytes, maxBytes, strategy + " trie");
+    return createFromParameters(parameters, keywords, strategy);
+  }
+
+  /**
+   * Creates a new {@link KeywordTextMatcher} that scans with an already built automaton.
+   *
+   * @param automaton the {@link AhoCorasickAutomaton} we want to match with
+   * @return the new {@link KeywordTextMatcher}
+   */
+  public static KeywordTextMatcher createFromAutomaton(AhoCorasickAutomaton automaton) {
+    return new KeywordTextMatcher(automaton);
   }
 
   /**
@@ -54,19 +200,372 @@ public class KeywordTextMatcher {
    * @return a list of {@link Match}es found
    */
   public List<Match> matchText(String text) {
-    ACTrieNode currentNode = stringMatcher.rootNode;
     List<Match> matches = new ArrayList<>();
+    matchText(text, (keywordId, startPosition, endPosition) ->
+        matches.add(new Match(automaton.getKeyword(keywordId), (int) startPosition,
+            (int) endPosition)));
+    return matches;
+  }
+
+  /**
+   * Scans text and reports all matches to listener as (keywordId, start, end). The text is read in
+   * place and nothing is allocated per match, so this is the way to scan texts with many matches;
+   * the keyword of a match is getKeyword(keywordId) of the automaton, if it is needed at all.
+   *
+   * @param text     the text body we want to search, e.g. a String or a StringBuilder
+   * @param listener the {@link MatchListener} receiving the matches
+   */
+  public void matchText(CharSequence text, MatchListener listener) {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    MatchSession session = createSession(listener);
+    session.feed(text, 0, text.length());
+    finish(event, "matchText", session);
+  }
+
+  /**
+   * Returns whether any keyword occurs in text. The scan stops in the first state in which a
+   * keyword ends, and nothing is allocated.
+   *
+   * @param text the text body we want to search, e.g. a String or a StringBuilder
+   * @return true if matchText would find at least one match
+   */
+  public boolean containsAny(CharSequence text) {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    int state = automaton.getRootState();
+    for (int i = 0; i < text.length(); i++) {
+      state = automaton.getDFATransition(state, text.charAt(i));
+      if (firstOutputState(state) != -1) {
+        TextScanEvent.finish(event, "containsAny", i + 1, 1, keywordLengths.length);
+        return true;
+      }
+    }
+    TextScanEvent.finish(event, "containsAny", text.length(), 0, keywordLengths.length);
+    return false;
+  }
+
+  /**
+   * Reports the first match of text to listener, i.e. the first match matchText would report: the
+   * one ending first and, of the keywords ending there, the longest. The scan stops there and
+   * nothing is allocated.
+   *
+   * @param text     the text body we want to search, e.g. a String or a StringBuilder
+   * @param listener the {@link MatchListener} receiving the first match
+   * @return true if a match was found and reported
+   */
+  public boolean findFirst(CharSequence text, MatchListener listener) {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    int state = automaton.getRootState();
+    for (int i = 0; i < text.length(); i++) {
+      state = automaton.getDFATransition(state, text.charAt(i));
+      int outputState = firstOutputState(state);
+      if (outputState != -1) {
+        int keywordId = automaton.getKeywordId(outputState);
+        listener.onMatch(keywordId, i + 1 - keywordLengths[keywordId], i);
+        TextScanEvent.finish(event, "findFirst", i + 1, 1, keywordLengths.length);
+        return true;
+      }
+    }
+    TextScanEvent.finish(event, "findFirst", text.length(), 0, keywordLengths.length);
+    return false;
+  }
+
+  /**
+   * Returns the number of matches matchText would find in text, without creating them.
+   *
+   * @param text the text body we want to search, e.g. a String or a StringBuilder
+   * @return the number of keyword occurrences in text
+   */
+  public long count(CharSequence text) {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    long count = 0;
+    int state = automaton.getRootState();
+    for (int i = 0; i < text.length(); i++) {
+      state = automaton.getDFATransition(state, text.charAt(i));
+      for (int outputState = firstOutputState(state); outputState != -1;
+          outputState = automaton.getOutputLink(outputState)) {
+        count++;
+      }
+    }
+    TextScanEvent.finish(event, "count", text.length(), count, keywordLengths.length);
+    return count;
+  }
+
+  /**
+   * Returns the state of the longest keyword ending in state, or -1 if no keyword ends in it.
+   */
+  private int firstOutputState(int state) {
+    return automaton.getKeywordId(state) != -1 ? state : automaton.getOutputLink(state);
+  }
+
+  /**
+   * Returns the {@link Match}es of the keywords in the text which kind selects, ordered by their
+   * position.
+   *
+   * @param text String - the text body we want to search
+   * @param kind the {@link MatchKind} selecting the reported matches
+   * @return a list of {@link Match}es found
+   */
+  public List<Match> matchText(String text, MatchKind kind) {
+    List<Match> matches = new ArrayList<>();
+    matchText(text, kind, (keywordId, startPosition, endPosition) ->
+        matches.add(new Match(automaton.getKeyword(keywordId), (int) startPosition,
+            (int) endPosition)));
+    return matches;
+  }
+
+  /**
+   * Scans text and reports the matches which kind selects to listener, ordered by their position.
+   * Nothing is allocated per match.
+   *
+   * <p>The leftmost kinds are decided during the DFA walk itself: The best match seen so far is
+   * kept as candidate until no other match can start at or before it anymore, i.e. until the
+   * keyword prefix the DFA state represents (see {@link AhoCorasickAutomaton#getStateDepth}) starts
+   * after the candidate. The candidate is reported then and the walk restarts in the root right
+   * after it. Only chars which are still part of a keyword prefix covering the candidate are
+   * rescanned, so short matches next to a long keyword are found at full speed. Empty keywords are
+   * never reported.
+   *
+   * @param text     the text body we want to search, e.g. a String or a StringBuilder
+   * @param kind     the {@link MatchKind} selecting the reported matches
+   * @param listener the {@link MatchListener} receiving the matches
+   */
+  public void matchText(CharSequence text, MatchKind kind, MatchListener listener) {
+    if (kind == MatchKind.STANDARD) {
+      matchText(text, listener);
+    } else {
+      TextScanEvent event = TextScanEvent.beginIfEnabled();
+      boolean longest = kind == MatchKind.LEFTMOST_LONGEST;
+      long matchCount = matchLeftmost(text, longest, listener);
+      TextScanEvent.finish(event,
+          longest ? "matchText LEFTMOST_LONGEST" : "matchText LEFTMOST_FIRST",
+          text.length(), matchCount, keywordLengths.length);
+    }
+  }
 
-    char[] charArray = text.toCharArray();
-    for (int i = 0; i < charArray.length; i++) {
-      char c = charArray[i];
-      currentNode = currentNode.getDFATransition(c);
+  /**
+   * Scans text for leftmost matches and returns the number of matches reported.
+   */
+  private long matchLeftmost(CharSequence text, boolean longest, MatchListener listener) {
+    int rootState = automaton.getRootState();
+    long matchCount = 0;
+    int position = 0;
+    while (position < text.length()) {
+      int state = rootState;
+      int candidate = -1;
+      int candidateStart = -1;
+      for (int i = position; i < text.length(); i++) {
+        state = automaton.getDFATransition(state, text.charAt(i));
+        int outputState = automaton.getKeywordId(state) != -1
+            ? state : automaton.getOutputLink(state);
+        while (outputState != -1) {
+          int keywordId = automaton.getKeywordId(outputState);
+          int start = i + 1 - keywordLengths[keywordId];
+          if (start <= i && (candidate == -1 || start < candidateStart
+              || start == candidateStart && (longest
+              ? keywordLengths[keywordId] > keywordLengths[candidate] : keywordId < candidate))) {
+            candidate = keywordId;
+            candidateStart = start;
+          }
+          outputState = automaton.getOutputLink(outputState);
+        }
+        //No match found later can start at or before the candidate
+        if (candidate != -1 && i + 1 - automaton.getStateDepth(state) > candidateStart) {
+          break;
+        }
+      }
 
-      for (String output : currentNode.output) {
-        matches.add(new Match(output, i + 1 - output.length(), i));
+      if (candidate == -1) {
+        return matchCount;
       }
+      int candidateEnd = candidateStart + keywordLengths[candidate] - 1;
+      listener.onMatch(candidate, candidateStart, candidateEnd);
+      matchCount++;
+      position = candidateEnd + 1;
+    }
+    return matchCount;
+  }
+
+  /**
+   * Returns all {@link Match}es of the keywords we found in the text, scanning it in parallel on
+   * the common {@link ForkJoinPool}. The result is identical to the one of matchText.
+   *
+   * @param text the text body we want to search, e.g. a String or a StringBuilder
+   * @return a list of {@link Match}es found
+   */
+  public List<Match> matchTextParallel(CharSequence text) {
+    return matchTextParallel(text, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Returns all {@link Match}es of the keywords we found in the text, scanning it in parallel on
+   * pool. The result is identical to the one of matchText.
+   *
+   * <p>The text is split into chunks, and every chunk is scanned by its own task starting
+   * (longest keyword length - 1) chars before the chunk. A task only keeps the matches ending in its
+   * chunk, so every match is found by exactly one task and the lists of the tasks can simply be
+   * concatenated. The tasks read text in place, so it must not change while it is scanned.
+   *
+   * @param text the text body we want to search, e.g. a String or a StringBuilder
+   * @param pool the {@link ForkJoinPool} running the scans
+   * @return a list of {@link Match}es found
+   */
+  public List<Match> matchTextParallel(CharSequence text, ForkJoinPool pool) {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    int length = text.length();
+    int chunkCount = Math.max(1, Math.min(CHUNKS_PER_WORKER * pool.getParallelism(),
+        length / MIN_PARALLEL_CHUNK_SIZE));
+    int chunkSize = (int) (((long) length + chunkCount - 1) / chunkCount);
+
+    List<ForkJoinTask<List<Match>>> tasks = new ArrayList<>(chunkCount);
+    for (int chunkStart = 0; chunkStart < length; chunkStart += chunkSize) {
+      int from = chunkStart;
+      int to = Math.min(length, chunkStart + chunkSize);
+      tasks.add(pool.submit(() -> matchChunk(text, from, to)));
     }
 
+    List<Match> matches = new ArrayList<>();
+    for (ForkJoinTask<List<Match>> task : tasks) {
+      matches.addAll(task.join());
+    }
+    TextScanEvent.finish(event, "matchTextParallel", length, matches.size(),
+        keywordLengths.length);
+    return matches;
+  }
+
+  private List<Match> matchChunk(CharSequence text, int from, int to) {
+    int scanStart = Math.max(0, from - Math.max(0, maxKeywordLength - 1));
+    List<Match> matches = new ArrayList<>();
+    MatchSession session = new MatchSession(automaton, keywordLengths, byteCodes,
+        (keywordId, startPosition, endPosition) -> {
+          if (endPosition >= from) {
+            matches.add(new Match(automaton.getKeyword(keywordId), (int) startPosition,
+                (int) endPosition));
+          }
+        }, scanStart);
+    session.feed(text, scanStart, to);
     return matches;
   }
+
+  /**
+   * Creates a new {@link MatchSession} which scans a text chunk by chunk and reports all matches to
+   * listener.
+   *
+   * @param listener the {@link MatchListener} receiving the matches
+   * @return the new {@link MatchSession}, positioned at the beginning of the text
+   */
+  public MatchSession createSession(MatchListener listener) {
+    return new MatchSession(automaton, keywordLengths, byteCodes, listener);
+  }
+
+  /**
+   * Reads reader until its end and reports all matches to listener. The reader is not closed.
+   *
+   * @param reader   the text body we want to search
+   * @param listener the {@link MatchListener} receiving the matches
+   * @return the number of chars read
+   * @throws IOException if reading fails
+   */
+  public long matchReader(Reader reader, MatchListener listener) throws IOException {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    MatchSession session = createSession(listener);
+    char[] buffer = new char[STREAM_BUFFER_SIZE];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      session.feed(buffer, 0, read);
+    }
+    finish(event, "matchReader", session);
+    return session.getPosition();
+  }
+
+  /**
+   * Reads channel until its end, decodes it using charset and reports all matches to listener.
+   * Positions are char positions in the decoded text. Malformed input is replaced like an {@link
+   * java.io.InputStreamReader} does. The channel is not closed.
+   *
+   * @param channel  the text body we want to search
+   * @param charset  the {@link Charset} the text is encoded in
+   * @param listener the {@link MatchListener} receiving the matches
+   * @return the number of chars decoded
+   * @throws IOException if reading fails
+   */
+  public long matchChannel(ReadableByteChannel channel, Charset charset, MatchListener listener)
+      throws IOException {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    MatchSession session = createSession(listener);
+    CharsetDecoder decoder = charset.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    ByteBuffer bytes = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+    CharBuffer chars = CharBuffer.allocate(STREAM_BUFFER_SIZE);
+
+    boolean endOfInput = false;
+    while (!endOfInput) {
+      endOfInput = channel.read(bytes) == -1;
+      bytes.flip();
+      CoderResult result;
+      do {
+        result = decoder.decode(bytes, chars, endOfInput);
+        chars.flip();
+        session.feed(chars);
+        chars.clear();
+      } while (result.isOverflow());
+      bytes.compact();
+    }
+
+    CoderResult result;
+    do {
+      result = decoder.flush(chars);
+      chars.flip();
+      session.feed(chars);
+      chars.clear();
+    } while (result.isOverflow());
+    finish(event, "matchChannel", session);
+    return session.getPosition();
+  }
+
+  /**
+   * Scans the bytes of text and reports all matches to listener. Every byte b is read as the
+   * character (char) (b &amp; 0xFF).
+   *
+   * @param text     the text body we want to search
+   * @param listener the {@link MatchListener} receiving the matches
+   * @throws IllegalStateException if the language of the matcher is not a byte language
+   */
+  public void matchBytes(byte[] text, MatchListener listener) {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    MatchSession session = createSession(listener);
+    session.feed(text, 0, text.length);
+    finish(event, "matchBytes", session);
+  }
+
+  /**
+   * Memory-maps the file at path and scans it byte by byte, reporting all matches to listener with
+   * their byte positions. Files larger than 2GB are mapped window by window; the state of the DFA
+   * carries across windows.
+   *
+   * @param path     the path of the file we want to search
+   * @param listener the {@link MatchListener} receiving the matches
+   * @return the number of bytes scanned
+   * @throws IOException           if the file cannot be mapped
+   * @throws IllegalStateException if the language of the matcher is not a byte language
+   */
+  public long matchFile(Path path, MatchListener listener) throws IOException {
+    TextScanEvent event = TextScanEvent.beginIfEnabled();
+    MatchSession session = createSession(listener);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      for (long offset = 0; offset < size; offset += MAPPED_WINDOW_SIZE) {
+        MappedByteBuffer window = channel.map(MapMode.READ_ONLY, offset,
+            Math.min(MAPPED_WINDOW_SIZE, size - offset));
+        session.feed(window);
+      }
+    }
+    finish(event, "matchFile", session);
+    return session.getPosition();
+  }
+
+  private void finish(TextScanEvent event, String operation, MatchSession session) {
+    TextScanEvent.finish(event, operation, session.getPosition(), session.getMatchCount(),
+        keywordLengths.length);
+  }
 }
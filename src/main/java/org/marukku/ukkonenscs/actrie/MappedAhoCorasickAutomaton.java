@@ -0,0 +1,175 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+
+/**
+ * A {@link DoubleArrayAhoCorasickTrie} loaded from a snapshot (see {@link AutomatonSnapshot}). Its
+ * tables are views of the memory-mapped snapshot file, so they are never copied onto the heap.
+ * Keywords are only turned into Strings when they are requested.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+class MappedAhoCorasickAutomaton implements AhoCorasickAutomaton {
+
+  private final LanguageParameter parameters;
+  private final int stateCount;
+
+  private final IntBuffer base;
+  private final IntBuffer check;
+  private final IntBuffer next;
+  private final IntBuffer fail;
+  private final IntBuffer keywordIds;
+  private final IntBuffer outputLinks;
+
+  //DFA (null if it was not stored)
+  private final IntBuffer rootTransitions;
+  private final IntBuffer dfaBase;
+  private final IntBuffer dfaCheck;
+  private final IntBuffer dfaNext;
+
+  private final IntBuffer keywordOffsets;
+  private final CharBuffer keywordChars;
+  /**
+   * Memoized keywords, created on first use. Racing threads at worst create a keyword twice.
+   */
+  private String[] keywords;
+  /**
+   * State depths, derived from the goto function on first use (they are not stored in the
+   * snapshot). Racing threads at worst derive them twice.
+   */
+  private int[] depths;
+
+  MappedAhoCorasickAutomaton(LanguageParameter parameters, int stateCount, IntBuffer base,
+      IntBuffer check, IntBuffer next, IntBuffer fail, IntBuffer keywordIds, IntBuffer outputLinks,
+      IntBuffer rootTransitions, IntBuffer dfaBase, IntBuffer dfaCheck, IntBuffer dfaNext,
+      IntBuffer keywordOffsets, CharBuffer keywordChars) {
+    this.parameters = parameters;
+    this.stateCount = stateCount;
+    this.base = base;
+    this.check = check;
+    this.next = next;
+    this.fail = fail;
+    this.keywordIds = keywordIds;
+    this.outputLinks = outputLinks;
+    this.rootTransitions = rootTransitions;
+    this.dfaBase = dfaBase;
+    this.dfaCheck = dfaCheck;
+    this.dfaNext = dfaNext;
+    this.keywordOffsets = keywordOffsets;
+    this.keywordChars = keywordChars;
+  }
+
+  private int gotoCode(int state, int code) {
+    int cell = base.get(state) + code;
+    if (cell < check.limit() && check.get(cell) == state) {
+      return next.get(cell);
+    }
+    return -1;
+  }
+
+  @Override
+  public int getRootState() {
+    return 0;
+  }
+
+  @Override
+  public int getStateCount() {
+    return stateCount;
+  }
+
+  @Override
+  public int getDFATransition(int state, char input) {
+    return getDFATransitionByCode(state, parameters.map(input));
+  }
+
+  @Override
+  public int getDFATransitionByCode(int state, int code) {
+    if (dfaCheck == null) {
+      while (true) {
+        int target = gotoCode(state, code);
+        if (target != -1) {
+          return target;
+        }
+        if (state == 0) {
+          return 0;
+        }
+        state = fail.get(state);
+      }
+    }
+
+    int cell = dfaBase.get(state) + code;
+    if (cell < dfaCheck.limit() && dfaCheck.get(cell) == state) {
+      return dfaNext.get(cell);
+    }
+    return rootTransitions.get(code);
+  }
+
+  @Override
+  public int getStateDepth(int state) {
+    int[] memo = depths;
+    if (memo == null) {
+      //States are numbered in bfs order, so every parent is numbered before its children
+      int[] parents = new int[stateCount];
+      for (int cell = 0; cell < check.limit(); cell++) {
+        int parent = check.get(cell);
+        if (parent != -1) {
+          parents[next.get(cell)] = parent;
+        }
+      }
+      memo = new int[stateCount];
+      for (int child = 1; child < stateCount; child++) {
+        memo[child] = memo[parents[child]] + 1;
+      }
+      depths = memo;
+    }
+    return memo[state];
+  }
+
+  @Override
+  public int getKeywordId(int state) {
+    return keywordIds.get(state);
+  }
+
+  @Override
+  public int getOutputLink(int state) {
+    return outputLinks.get(state);
+  }
+
+  @Override
+  public String getKeyword(int keywordId) {
+    String[] memo = keywords;
+    if (memo == null) {
+      memo = new String[getKeywordCount()];
+      keywords = memo;
+    }
+    if (memo[keywordId] == null) {
+      int from = keywordOffsets.get(keywordId);
+      memo[keywordId] = keywordChars.subSequence(from, keywordOffsets.get(keywordId + 1))
+          .toString();
+    }
+    return memo[keywordId];
+  }
+
+  @Override
+  public int getKeywordLength(int keywordId) {
+    return keywordOffsets.get(keywordId + 1) - keywordOffsets.get(keywordId);
+  }
+
+  @Override
+  public int getKeywordCount() {
+    return keywordOffsets.limit() - 1;
+  }
+
+  @Override
+  public LanguageParameter getParameters() {
+    return parameters;
+  }
+}
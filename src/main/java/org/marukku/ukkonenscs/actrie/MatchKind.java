@@ -0,0 +1,36 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+/**
+ * Defines which matches a {@link KeywordTextMatcher} reports.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public enum MatchKind {
+
+  /**
+   * Every occurrence of every keyword is reported, even if occurrences overlap or contain each
+   * other. This is classic Aho-Corasick matching.
+   */
+  STANDARD,
+
+  /**
+   * Reports non-overlapping matches scanning from left to right: the match starting leftmost is
+   * reported, and of all keywords starting there the one which comes first in the keyword list
+   * (the one with the smallest keyword id). Scanning then continues after the end of the match.
+   * This is what a regex alternation of the keywords in list order finds.
+   */
+  LEFTMOST_FIRST,
+
+  /**
+   * Reports non-overlapping matches scanning from left to right: the match starting leftmost is
+   * reported, and of all keywords starting there the longest one. Scanning then continues after the
+   * end of the match. This is the usual semantics of tokenizers.
+   */
+  LEFTMOST_LONGEST
+}
@@ -0,0 +1,29 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+/**
+ * Receives the matches found by a {@link KeywordTextMatcher} while it scans a text. Matches are
+ * reported as soon as their last character has been read, ordered by their end position.
+ * Positions are absolute char offsets from the beginning of the scanned text (inclusive at both
+ * ends, like in {@link Match}); they are longs, so that texts larger than 2^31 chars can be
+ * scanned.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@FunctionalInterface
+public interface MatchListener {
+
+  /**
+   * Called for every keyword occurrence found in the text.
+   *
+   * @param keywordId     the id of the matched keyword (its index in the keyword list)
+   * @param startPosition the position of the first character of the match
+   * @param endPosition   the position of the last character of the match
+   */
+  void onMatch(int keywordId, long startPosition, long endPosition);
+}
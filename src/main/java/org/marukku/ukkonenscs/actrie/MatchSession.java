@@ -0,0 +1,224 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+
+/**
+ * A MatchSession scans a text which arrives in chunks. It keeps the current state of the DFA and
+ * the absolute position in the text between the chunks, so that matches crossing chunk boundaries
+ * are found and reported with the right positions. Memory stays constant no matter how much text
+ * is fed into the session.
+ *
+ * <p>Example Usage:
+ * <pre>
+ *   {@code
+ *   MatchSession session = matcher.createSession(
+ *       (keywordId, start, end) -> System.out.println(keywordId + " " + start));
+ *   session.feed(firstChunk);
+ *   session.feed(secondChunk);
+ *   }
+ *</pre>
+ *
+ * <p>If the language of the automaton is a byte language (see {@link
+ * org.marukku.ukkonenscs.alphabet.LanguageParameter#isByteLanguage()}), the session can also be
+ * fed with bytes, which are read as the characters (char) 0 to (char) 255 without decoding them.
+ * Positions are byte positions then. The codes of the 256 bytes are resolved once per matcher, so
+ * every byte indexes the DFA directly.
+ *
+ * <p>A session is not thread-safe, but any number of sessions can scan with the same matcher
+ * concurrently.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class MatchSession {
+
+  private final AhoCorasickAutomaton automaton;
+  private final MatchListener listener;
+  private final int[] keywordLengths;
+  /**
+   * The code of every byte, or -1 if the byte is not in the alphabet; null if the language is not a
+   * byte language.
+   */
+  private final int[] byteCodes;
+
+  private int currentState;
+  private long position;
+  private long matchCount;
+
+  MatchSession(AhoCorasickAutomaton automaton, int[] keywordLengths, int[] byteCodes,
+      MatchListener listener) {
+    this(automaton, keywordLengths, byteCodes, listener, 0);
+  }
+
+  MatchSession(AhoCorasickAutomaton automaton, int[] keywordLengths, int[] byteCodes,
+      MatchListener listener, long startPosition) {
+    this.automaton = automaton;
+    this.keywordLengths = keywordLengths;
+    this.byteCodes = byteCodes;
+    this.listener = listener;
+    this.currentState = automaton.getRootState();
+    this.position = startPosition;
+  }
+
+  /**
+   * Scans all remaining chars of chunk and advances its position to its limit.
+   *
+   * @param chunk the next part of the text
+   */
+  public void feed(CharBuffer chunk) {
+    if (chunk.hasArray()) {
+      int offset = chunk.arrayOffset();
+      feed(chunk.array(), offset + chunk.position(), offset + chunk.limit());
+      chunk.position(chunk.limit());
+    } else {
+      while (chunk.hasRemaining()) {
+        step(chunk.get());
+      }
+    }
+  }
+
+  /**
+   * Scans the chars of chunk in range(from, to-1).
+   *
+   * @param chunk the array holding the next part of the text
+   * @param from  the index of the first char to scan (inclusive)
+   * @param to    the index of the last char to scan (exclusive)
+   */
+  public void feed(char[] chunk, int from, int to) {
+    for (int i = from; i < to; i++) {
+      step(chunk[i]);
+    }
+  }
+
+  /**
+   * Scans the chars of chunk in range(from, to-1) without copying them, e.g. of a String or a
+   * StringBuilder.
+   *
+   * @param chunk the sequence holding the next part of the text
+   * @param from  the index of the first char to scan (inclusive)
+   * @param to    the index of the last char to scan (exclusive)
+   */
+  public void feed(CharSequence chunk, int from, int to) {
+    for (int i = from; i < to; i++) {
+      step(chunk.charAt(i));
+    }
+  }
+
+  /**
+   * Scans all remaining bytes of chunk and advances its position to its limit. Works with heap
+   * buffers as well as direct and memory-mapped buffers.
+   *
+   * @param chunk the next part of the text
+   * @throws IllegalStateException if the language of the automaton is not a byte language
+   */
+  public void feed(ByteBuffer chunk) {
+    requireByteLanguage();
+    if (chunk.hasArray()) {
+      int offset = chunk.arrayOffset();
+      feed(chunk.array(), offset + chunk.position(), offset + chunk.limit());
+      chunk.position(chunk.limit());
+    } else {
+      int limit = chunk.limit();
+      for (int i = chunk.position(); i < limit; i++) {
+        stepByte(chunk.get(i));
+      }
+      chunk.position(limit);
+    }
+  }
+
+  /**
+   * Scans the bytes of chunk in range(from, to-1).
+   *
+   * @param chunk the array holding the next part of the text
+   * @param from  the index of the first byte to scan (inclusive)
+   * @param to    the index of the last byte to scan (exclusive)
+   * @throws IllegalStateException if the language of the automaton is not a byte language
+   */
+  public void feed(byte[] chunk, int from, int to) {
+    requireByteLanguage();
+    for (int i = from; i < to; i++) {
+      stepByte(chunk[i]);
+    }
+  }
+
+  /**
+   * Returns the number of chars (or bytes) scanned so far, i.e. the position of the next one.
+   *
+   * @return the absolute position in the text
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  /**
+   * Returns the number of matches reported so far.
+   */
+  long getMatchCount() {
+    return matchCount;
+  }
+
+  /**
+   * Resolves the codes of the 256 bytes of a byte language, see {@link #byteCodes}.
+   *
+   * @param automaton the automaton whose language we scan
+   * @return the code of every byte or null if the language is not a byte language
+   */
+  static int[] resolveByteCodes(AhoCorasickAutomaton automaton) {
+    LanguageParameter parameters = automaton.getParameters();
+    if (!parameters.isByteLanguage()) {
+      return null;
+    }
+    int[] codes = new int[256];
+    for (int b = 0; b < codes.length; b++) {
+      try {
+        int code = parameters.map((char) b);
+        codes[b] = code >= 0 && code < parameters.getAlphabetSize() ? code : -1;
+      } catch (RuntimeException e) {
+        //Mappers may reject characters outside of the alphabet; they do so when the byte is read
+        codes[b] = -1;
+      }
+    }
+    return codes;
+  }
+
+  private void requireByteLanguage() {
+    if (byteCodes == null) {
+      throw new IllegalStateException("The alphabet of the automaton is not a byte alphabet");
+    }
+  }
+
+  private void stepByte(byte b) {
+    int code = byteCodes[b & 0xFF];
+    if (code == -1) {
+      //Not in the alphabet, the automaton decides what that means
+      step((char) (b & 0xFF));
+      return;
+    }
+    currentState = automaton.getDFATransitionByCode(currentState, code);
+    reportMatches();
+  }
+
+  private void step(char c) {
+    currentState = automaton.getDFATransition(currentState, c);
+    reportMatches();
+  }
+
+  private void reportMatches() {
+    int outputState = automaton.getKeywordId(currentState) != -1
+        ? currentState : automaton.getOutputLink(currentState);
+    while (outputState != -1) {
+      int keywordId = automaton.getKeywordId(outputState);
+      listener.onMatch(keywordId, position + 1 - keywordLengths[keywordId], position);
+      matchCount++;
+      outputState = automaton.getOutputLink(outputState);
+    }
+    position++;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.trienodes.ACTrieNode;
+
+/**
+ * Exposes the node-object graph of an {@link AhoCorasickTrie} as an {@link AhoCorasickAutomaton}.
+ * States are the ids of the trie nodes.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+class NodeGraphAutomaton implements AhoCorasickAutomaton {
+
+  private final AhoCorasickTrie<? extends ACTrieNode> trie;
+  private final ACTrieNode[] nodes;
+  private final int[] depths;
+
+  NodeGraphAutomaton(AhoCorasickTrie<? extends ACTrieNode> trie) {
+    this.trie = trie;
+    this.nodes = trie.trieNodes.toArray(new ACTrieNode[0]);
+    this.depths = new int[nodes.length];
+
+    //Depths follow the goto function down from the root, whose self loops are skipped
+    ArrayDeque<ACTrieNode> queue = new ArrayDeque<>();
+    queue.add(trie.rootNode);
+    while (!queue.isEmpty()) {
+      ACTrieNode node = queue.poll();
+      for (int slot = 0; slot < node.getSuccessorSlotCount(); slot++) {
+        ACTrieNode child = node.getSuccessorInSlot(slot);
+        if (child != null && child != trie.rootNode && child.id < nodes.length) {
+          depths[child.id] = depths[node.id] + 1;
+          queue.add(child);
+        }
+      }
+    }
+  }
+
+  @Override
+  public int getRootState() {
+    return trie.rootNode.id;
+  }
+
+  @Override
+  public int getStateCount() {
+    return nodes.length;
+  }
+
+  @Override
+  public int getDFATransition(int state, char input) {
+    return nodes[state].getDFATransition(input).id;
+  }
+
+  @Override
+  public int getDFATransitionByCode(int state, int code) {
+    return nodes[state].getDFATransitionByCode(code).id;
+  }
+
+  @Override
+  public int getStateDepth(int state) {
+    return depths[state];
+  }
+
+  @Override
+  public int getKeywordId(int state) {
+    return nodes[state].keywordId;
+  }
+
+  @Override
+  public int getOutputLink(int state) {
+    ACTrieNode outputLink = nodes[state].outputLink;
+    return outputLink == null ? -1 : outputLink.id;
+  }
+
+  @Override
+  public String getKeyword(int keywordId) {
+    return trie.getKeys().get(keywordId);
+  }
+
+  @Override
+  public int getKeywordCount() {
+    return trie.getKeys().size();
+  }
+
+  @Override
+  public LanguageParameter getParameters() {
+    return trie.getParameters();
+  }
+}
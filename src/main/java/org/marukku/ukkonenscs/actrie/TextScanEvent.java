@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event covering one scan of a {@link KeywordTextMatcher}. By default only
+ * scans taking at least 10 ms are recorded, so that services running millions of short scans can
+ * leave the event on; lower the threshold in the recording settings to see all of them. Without a
+ * recording, no event is created at all (see beginIfEnabled).
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@Name("org.marukku.ukkonenscs.TextScan")
+@Label("Text Scan")
+@Description("A scan of a text by a KeywordTextMatcher")
+@Category({"Ukkonen SCS", "Aho-Corasick"})
+@Threshold("10 ms")
+@StackTrace(false)
+final class TextScanEvent extends Event {
+
+  @Label("Operation")
+  @Description("The method of the KeywordTextMatcher which scanned")
+  String operation;
+
+  @Label("Scanned Length")
+  @Description("The number of chars (or bytes for byte scans) scanned")
+  long scannedLength;
+
+  @Label("Match Count")
+  long matchCount;
+
+  @Label("Keyword Count")
+  int keywordCount;
+
+  /**
+   * An event which is never committed, it only tells whether the event type is enabled.
+   */
+  private static final TextScanEvent PROBE = new TextScanEvent();
+
+  /**
+   * Begins a new event, or returns null if no recording enables the event type. Scans without a
+   * recording thus do not allocate anything.
+   */
+  static TextScanEvent beginIfEnabled() {
+    if (!PROBE.isEnabled()) {
+      return null;
+    }
+    TextScanEvent event = new TextScanEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Ends event (if it was begun) and commits it if it is recorded. The fields are only filled in
+   * then.
+   */
+  static void finish(TextScanEvent event, String operation, long scannedLength, long matchCount,
+      int keywordCount) {
+    if (event == null) {
+      return;
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.scannedLength = scannedLength;
+      event.matchCount = matchCount;
+      event.keywordCount = keywordCount;
+      event.commit();
+    }
+  }
+}
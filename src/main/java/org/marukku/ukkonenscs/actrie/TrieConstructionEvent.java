@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event covering the construction of an {@link AhoCorasickTrie} or a
+ * {@link DoubleArrayAhoCorasickTrie}. Constructions are rare and long, so every one is recorded.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@Name("org.marukku.ukkonenscs.TrieConstruction")
+@Label("Trie Construction")
+@Description("Construction of an Aho-Corasick automaton")
+@Category({"Ukkonen SCS", "Aho-Corasick"})
+@StackTrace(false)
+final class TrieConstructionEvent extends Event {
+
+  @Label("Automaton")
+  @Description("The class of the built automaton")
+  String automaton;
+
+  @Label("DFA Mode")
+  String dfaMode;
+
+  @Label("Parallel")
+  boolean parallel;
+
+  @Label("Keyword Count")
+  int keywordCount;
+
+  @Label("Node Count")
+  int nodeCount;
+}
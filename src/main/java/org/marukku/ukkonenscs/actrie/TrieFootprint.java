@@ -0,0 +1,267 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+
+/**
+ * Estimates the memory an automaton of a list of keys will need before it is built, so that a
+ * build which would exhaust the heap can be rejected (or built with a cheaper representation) up
+ * front. The node count is exact: it is computed by sorting the keys and summing the lengths of
+ * the keys minus their common prefixes with their predecessors, which costs one pass over the keys
+ * and an array of key references.
+ *
+ * <p>Byte counts are projections for a 64-bit JVM with compressed references: node objects,
+ * transition tables and arrays of the retained automaton, without the keys themselves and without
+ * the temporary structures of the construction. The sizes of DFA rows and the holes of double
+ * arrays are modelled from the fan-out of the first two trie levels, so the projections are meant
+ * for budgets and comparisons (for random keys they are within a third of the real size, sparse
+ * double arrays of large alphabets erring on the high side), not for exact accounting.
+ *
+ * <p>Example Usage:
+ * <pre>
+ *   {@code
+ *   TrieFootprint footprint = TrieFootprint.estimate(keys, params);
+ *   TransitionStrategy strategy = footprint.getCheapestStrategy(DFAMode.EAGER);
+ *   long bytes = footprint.estimateNodeGraphBytes(strategy, DFAMode.EAGER);
+ *   }
+ * </pre>
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class TrieFootprint {
+
+  /**
+   * An ACTrieNode: object header and fields.
+   */
+  private static final long NODE_BYTES = 64;
+  /**
+   * A dense transition table without its slots: object header, fields and array header.
+   */
+  private static final long DENSE_TABLE_BYTES = 32;
+  /**
+   * A sorted or hashed transition table without its entries.
+   */
+  private static final long SPARSE_TABLE_BYTES = 56;
+  /**
+   * An entry of a sorted table (code and reference), including unused capacity.
+   */
+  private static final double SORTED_ENTRY_BYTES = 12;
+  /**
+   * An entry of a hashed table, which keeps its load factor between 1/4 and 1/2.
+   */
+  private static final double HASHED_ENTRY_BYTES = 24;
+  private static final int SORTED_LIMIT = 8;
+  private static final long REFERENCE_BYTES = 4;
+  /**
+   * Rows sparser than this (entries per alphabet symbol) rarely fit into holes of a double array
+   * and are appended instead, so they occupy their whole span.
+   */
+  private static final int SPARSE_ROW_RATIO = 16;
+
+  private final int keyCount;
+  private final int alphabetSize;
+  private final long nodeCount;
+  private final long leafCount;
+  private final long depthOneCount;
+  private final long depthTwoCount;
+  private final double dfaRowEntries;
+
+  private TrieFootprint(int keyCount, int alphabetSize, long nodeCount, long leafCount,
+      long depthOneCount, long depthTwoCount, double dfaRowEntries) {
+    this.keyCount = keyCount;
+    this.alphabetSize = alphabetSize;
+    this.nodeCount = nodeCount;
+    this.leafCount = leafCount;
+    this.depthOneCount = depthOneCount;
+    this.depthTwoCount = depthTwoCount;
+    this.dfaRowEntries = dfaRowEntries;
+  }
+
+  /**
+   * Computes the footprint of a trie of keys.
+   *
+   * @param keys       the keys the automaton would be built from
+   * @param parameters the {@link LanguageParameter} of the automaton
+   * @return the {@link TrieFootprint} of the keys
+   */
+  public static TrieFootprint estimate(List<String> keys, LanguageParameter parameters) {
+    List<String> sortedKeys = new ArrayList<>(keys);
+    sortedKeys.sort(null);
+
+    //Every key creates the nodes of its suffix behind the longest prefix shared with the previous
+    //key. A key ends in a leaf iff it is no prefix of the next key (in sorted order, the keys
+    //starting with a key directly follow it; of duplicates only the last one counts).
+    long nodeCount = 1;
+    long leafCount = 0;
+    long depthOneCount = 0;
+    long depthTwoCount = 0;
+    for (int i = 0; i < sortedKeys.size(); i++) {
+      String key = sortedKeys.get(i);
+      int sharedLength = i > 0 ? commonPrefixLength(sortedKeys.get(i - 1), key) : 0;
+      nodeCount += key.length() - sharedLength;
+      if (sharedLength < 1 && key.length() >= 1) {
+        depthOneCount++;
+      }
+      if (sharedLength < 2 && key.length() >= 2) {
+        depthTwoCount++;
+      }
+      if (!key.isEmpty()
+          && (i + 1 == sortedKeys.size() || !sortedKeys.get(i + 1).startsWith(key))) {
+        leafCount++;
+      }
+    }
+
+    //A DFA row (stored relative to the root row) holds the children of its state and inherits the
+    //row of its fail state. Fail states are mostly shallow, so below depth one a row holds about
+    //as many entries as a node of depth one has children.
+    int alphabetSize = parameters.getAlphabetSize();
+    double inheritedEntries = depthOneCount == 0 ? 0 : (double) depthTwoCount / depthOneCount;
+    double dfaRowEntries = Math.min(alphabetSize * (double) (nodeCount - 1),
+        nodeCount - 1 + (nodeCount - 1 - depthOneCount) * inheritedEntries);
+    return new TrieFootprint(keys.size(), alphabetSize, nodeCount, leafCount, depthOneCount,
+        depthTwoCount, dfaRowEntries);
+  }
+
+  private static int commonPrefixLength(String first, String second) {
+    int length = Math.min(first.length(), second.length());
+    for (int i = 0; i < length; i++) {
+      if (first.charAt(i) != second.charAt(i)) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Returns the number of nodes of the trie, including the root.
+   *
+   * @return the node count
+   */
+  public long getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns the number of keys.
+   *
+   * @return the key count
+   */
+  public int getKeyCount() {
+    return keyCount;
+  }
+
+  /**
+   * Projects the bytes of an {@link AhoCorasickTrie} of {@link
+   * org.marukku.ukkonenscs.trienodes.ACTrieNode}s. Lazy DFAs are projected without memoized
+   * transitions, which grow with the scanned texts: by a dense table per visited node for dense
+   * nodes, by an adaptive table holding the characters read in the node for adaptive ones.
+   *
+   * @param strategy the {@link TransitionStrategy} of the nodes
+   * @param dfaMode  the {@link DFAMode} of the trie
+   * @return the projected bytes of the trie
+   */
+  public long estimateNodeGraphBytes(TransitionStrategy strategy, DFAMode dfaMode) {
+    long edgeCount = nodeCount - 1;
+    double bytes = nodeCount * (NODE_BYTES + 2 * REFERENCE_BYTES); //nodes and the list of nodes
+    if (strategy == TransitionStrategy.DENSE) {
+      long tableBytes = DENSE_TABLE_BYTES + alphabetSize * REFERENCE_BYTES;
+      bytes += nodeCount * tableBytes;
+      if (dfaMode == DFAMode.EAGER) {
+        bytes += nodeCount * tableBytes;
+      }
+    } else {
+      //Leaves share the empty table; the root is dense, since all its transitions are set
+      long innerNodeCount = nodeCount - leafCount - 1;
+      bytes += DENSE_TABLE_BYTES + alphabetSize * REFERENCE_BYTES;
+      if (innerNodeCount > 0) {
+        bytes += innerNodeCount * adaptiveTableBytes((double) edgeCount / innerNodeCount);
+      }
+      if (dfaMode == DFAMode.EAGER && edgeCount > 0) {
+        bytes += DENSE_TABLE_BYTES + alphabetSize * REFERENCE_BYTES
+                     + edgeCount * adaptiveTableBytes(dfaRowEntries / edgeCount);
+      }
+    }
+    return (long) bytes;
+  }
+
+  /**
+   * Projects the bytes of an adaptive table with the given number of entries, which is sorted,
+   * hashed or dense depending on its fan-out.
+   */
+  private double adaptiveTableBytes(double entries) {
+    if (4 * entries >= alphabetSize) {
+      return DENSE_TABLE_BYTES + alphabetSize * REFERENCE_BYTES;
+    }
+    return SPARSE_TABLE_BYTES
+               + entries * (entries <= SORTED_LIMIT ? SORTED_ENTRY_BYTES : HASHED_ENTRY_BYTES);
+  }
+
+  /**
+   * Projects the bytes of a {@link DoubleArrayAhoCorasickTrie}.
+   *
+   * @param withDFA whether the DFA is compiled as well
+   * @return the projected bytes of the automaton
+   */
+  public long estimateDoubleArrayBytes(boolean withDFA) {
+    long edgeCount = nodeCount - 1;
+    //The root row is dense; rows of depth one can be wide, deeper rows mostly hold a single child
+    double gotoCells = alphabetSize + depthOneCount * cellsPerRow(depthOneCount == 0 ? 0
+        : (double) depthTwoCount / depthOneCount) + (edgeCount - depthOneCount - depthTwoCount);
+    //base, fail, depth, keyword ids and output links per state, check and next per cell
+    double bytes = Integer.BYTES * 5 * nodeCount + keyCount * REFERENCE_BYTES
+                       + 2 * Integer.BYTES * gotoCells;
+    if (withDFA && edgeCount > 0) {
+      bytes += Integer.BYTES * (nodeCount + alphabetSize)
+                   + 2 * Integer.BYTES * edgeCount * cellsPerRow(dfaRowEntries / edgeCount);
+    }
+    return (long) bytes;
+  }
+
+  /**
+   * Projects the cells a row of a double array occupies, including the holes it leaves.
+   */
+  private double cellsPerRow(double entries) {
+    if (entries > 1 && entries * SPARSE_ROW_RATIO < alphabetSize) {
+      //Random codes spread over (entries - 1) / (entries + 1) of the alphabet
+      return alphabetSize * (entries - 1) / (entries + 1);
+    }
+    return entries * 1.1;
+  }
+
+  /**
+   * Returns the {@link TransitionStrategy} whose trie is projected to need the least memory.
+   *
+   * @param dfaMode the {@link DFAMode} of the trie
+   * @return the cheapest transition strategy
+   */
+  public TransitionStrategy getCheapestStrategy(DFAMode dfaMode) {
+    return estimateNodeGraphBytes(TransitionStrategy.DENSE, dfaMode)
+               <= estimateNodeGraphBytes(TransitionStrategy.ADAPTIVE, dfaMode)
+        ? TransitionStrategy.DENSE : TransitionStrategy.ADAPTIVE;
+  }
+
+  /**
+   * Throws if bytes exceeds maxBytes, explaining what was projected.
+   *
+   * @param bytes          the projected bytes of the automaton
+   * @param maxBytes       the budget
+   * @param representation a description of the representation, used in the message
+   * @throws IllegalArgumentException if bytes exceeds maxBytes
+   */
+  void requireWithinBudget(long bytes, long maxBytes, String representation) {
+    if (bytes > maxBytes) {
+      throw new IllegalArgumentException(String.format(
+          "The automaton of %d keys (%d nodes, alphabet size %d) is projected to need %d bytes as "
+              + "%s, which exceeds the budget of %d bytes", keyCount, nodeCount, alphabetSize,
+          bytes, representation, maxBytes));
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+
+/**
+ * Holds the current version of a dictionary as a frozen {@link KeywordTextMatcher} and replaces it
+ * RCU-style (read-copy-update): Readers never lock, they take the current matcher and scan with it.
+ * Updates build a new frozen automaton on the updating thread and then publish it with a single
+ * atomic write. Scans which started before keep using the old version until they finish, the
+ * garbage collector reclaims it once the last reader dropped it.
+ *
+ * <p>Example Usage:
+ * <pre>
+ *   {@code
+ *   VersionedKeywordTextMatcher dictionary = VersionedKeywordTextMatcher.create(params, keys);
+ *   //Scanning threads
+ *   KeywordTextMatcher matcher = dictionary.current(); //one consistent version per scan
+ *   matcher.matchReader(reader, listener);
+ *   //Updating thread
+ *   dictionary.addKeywords(newKeys);
+ *   }
+ * </pre>
+ *
+ * <p>Updates are serialized among each other, so versions are published in order and no update is
+ * lost. Building a version takes time proportional to the dictionary, but scan throughput does not
+ * drop while it happens (apart from the cpu the updating thread needs).
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class VersionedKeywordTextMatcher {
+
+  private final LanguageParameter parameters;
+  private final AtomicReference<Version> current;
+
+  private VersionedKeywordTextMatcher(LanguageParameter parameters, Version first) {
+    this.parameters = parameters;
+    this.current = new AtomicReference<>(first);
+  }
+
+  /**
+   * Creates the matcher with a first version built from keywords.
+   *
+   * @param parameters the {@link LanguageParameter} of all versions
+   * @param keywords   the keywords of the first version
+   * @return the new {@link VersionedKeywordTextMatcher}
+   */
+  public static VersionedKeywordTextMatcher create(LanguageParameter parameters,
+      List<String> keywords) {
+    return new VersionedKeywordTextMatcher(parameters, new Version(1, freeze(keywords, parameters)));
+  }
+
+  private static DoubleArrayAhoCorasickTrie freeze(List<String> keywords,
+      LanguageParameter parameters) {
+    return AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(keywords, parameters);
+  }
+
+  /**
+   * Returns the matcher of the current version. It never changes, so a scan should take it once
+   * and use it until the scan is done.
+   *
+   * @return the current matcher
+   */
+  public KeywordTextMatcher current() {
+    return current.get().matcher;
+  }
+
+  /**
+   * Returns the number of the current version. The first version is 1, and every update
+   * increments it.
+   *
+   * @return the current version
+   */
+  public long getVersion() {
+    return current.get().number;
+  }
+
+  /**
+   * Returns the keywords of the current version. The keyword ids reported by its matcher are
+   * indices in this list.
+   *
+   * @return the (unmodifiable) current keywords
+   */
+  public List<String> getKeywords() {
+    DoubleArrayAhoCorasickTrie automaton = current.get().automaton;
+    List<String> keywords = new ArrayList<>(automaton.getKeywordCount());
+    for (int i = 0; i < automaton.getKeywordCount(); i++) {
+      keywords.add(automaton.getKeyword(i));
+    }
+    return Collections.unmodifiableList(keywords);
+  }
+
+  /**
+   * Replaces the dictionary by keywords and publishes the new version.
+   *
+   * @param keywords the keywords of the new version
+   * @return the number of the new version
+   */
+  public synchronized long reload(List<String> keywords) {
+    return publish(freeze(keywords, parameters));
+  }
+
+  /**
+   * Adds keywords to the current dictionary and publishes the new version. The ids of the existing
+   * keywords do not change; the new keywords get the ids following them.
+   *
+   * @param keywords the keywords we want to add
+   * @return the number of the new version
+   */
+  public synchronized long addKeywords(List<String> keywords) {
+    List<String> allKeywords = new ArrayList<>(getKeywords());
+    allKeywords.addAll(keywords);
+    return publish(freeze(allKeywords, parameters));
+  }
+
+  private long publish(DoubleArrayAhoCorasickTrie automaton) {
+    Version next = new Version(current.get().number + 1, automaton);
+    current.set(next);
+    return next.number;
+  }
+
+  /**
+   * A published version; immutable, so readers see it completely or not at all.
+   */
+  private static final class Version {
+
+    private final long number;
+    private final DoubleArrayAhoCorasickTrie automaton;
+    private final KeywordTextMatcher matcher;
+
+    Version(long number, DoubleArrayAhoCorasickTrie automaton) {
+      this.number = number;
+      this.automaton = automaton;
+      this.matcher = KeywordTextMatcher.createFromAutomaton(automaton);
+    }
+  }
+}
@@ -5,6 +5,7 @@
 
 package org.marukku.ukkonenscs.alphabet;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -12,20 +13,96 @@ import java.util.function.Function;
  * Stores global language parameters (org.marukku.ukkonenscs.alphabet characters, mapping function) needed in both
  * AhoCorasick and Ukkonen's Algorithm.
  *
+ * <p>Note on the implementation: map is the innermost operation of every hot loop, so we never
+ * call the (boxing) mapper function for characters of the alphabet. When the language is created,
+ * the mapping of the alphabet is precomputed into one of three primitive representations:
+ * <br>plain offset arithmetic, if the alphabet is a contiguous range mapped in order (i.e. a-z);
+ * <br>a lookup table spanning the alphabet, if the alphabet is dense enough;
+ * <br>a small open addressing table otherwise (i.e. for sparse unicode alphabets).
+ * <br>Characters outside the alphabet are still passed to the mapper function.
+ *
  * @author Markus Walder
  * @since 26.12.2020, Sa.
  */
 public class LanguageParameter {
 
+  /**
+   * The maximal span of a lookup table relative to the alphabet size.
+   */
+  private static final int MAX_TABLE_SPAN_PER_CHARACTER = 8;
+  private static final int MIN_TABLE_SPAN = 4096;
+
   private int alphabetSize;
   private Function<Character, Integer> mapper;
   private List<Character> alphabet;
 
+  private final boolean byteLanguage;
+  private final boolean offsetMapping;
+  private final int lookupOffset;
+  private final int[] lookupTable;
+  private final char[] hashedCharacters;
+  private final int[] hashedCodes;
+
   LanguageParameter(int alphabetSize, Function<Character, Integer> mapper,
       List<Character> alphabet) {
     this.alphabetSize = alphabetSize;
     this.mapper = mapper;
     this.alphabet = alphabet;
+
+    int minChar = Character.MAX_VALUE;
+    int maxChar = Character.MIN_VALUE;
+    for (char c : alphabet) {
+      minChar = Math.min(minChar, c);
+      maxChar = Math.max(maxChar, c);
+    }
+
+    byteLanguage = maxChar <= 0xFF;
+
+    boolean contiguous = !alphabet.isEmpty() && maxChar - minChar + 1 == alphabetSize;
+    for (char c : alphabet) {
+      Integer code = mapper.apply(c);
+      contiguous &= code != null && code == c - minChar;
+    }
+
+    int span = maxChar - minChar + 1;
+    if (contiguous) {
+      offsetMapping = true;
+      lookupOffset = minChar;
+      lookupTable = null;
+      hashedCharacters = null;
+      hashedCodes = null;
+    } else if (!alphabet.isEmpty() && span <= Math.max(MIN_TABLE_SPAN,
+        MAX_TABLE_SPAN_PER_CHARACTER * alphabetSize)) {
+      offsetMapping = false;
+      lookupOffset = minChar;
+      lookupTable = new int[span];
+      Arrays.fill(lookupTable, -1);
+      for (char c : alphabet) {
+        lookupTable[c - minChar] = mapper.apply(c);
+      }
+      hashedCharacters = null;
+      hashedCodes = null;
+    } else {
+      offsetMapping = false;
+      lookupOffset = 0;
+      lookupTable = null;
+      int capacity = Integer.highestOneBit(Math.max(alphabet.size(), 1) * 2 - 1) << 1;
+      hashedCharacters = new char[capacity];
+      hashedCodes = new int[capacity];
+      Arrays.fill(hashedCodes, -1);
+      for (char c : alphabet) {
+        int slot = hashSlot(c);
+        while (hashedCodes[slot] != -1 && hashedCharacters[slot] != c) {
+          slot = (slot + 1) & (capacity - 1);
+        }
+        hashedCharacters[slot] = c;
+        hashedCodes[slot] = mapper.apply(c);
+      }
+    }
+  }
+
+  private int hashSlot(char input) {
+    return (input * 0x9E3779B9 >>> 16) & (hashedCodes.length - 1);
   }
 
   /**
@@ -38,9 +115,50 @@ public class LanguageParameter {
    */
   //Accessors
   public int map(char input) {
+    int code = lookup(input);
+    if (code != -1) {
+      return code;
+    }
+    //Not part of the alphabet, defer to the mapper
     return mapper.apply(input);
   }
 
+  /**
+   * Returns whether input is a character of the alphabet. Unlike map, it never calls the mapper
+   * function, so it can be used to validate keywords before they are mapped.
+   *
+   * @param input Character we want to check
+   * @return true if input is part of the alphabet
+   */
+  public boolean contains(char input) {
+    return lookup(input) != -1;
+  }
+
+  /**
+   * Returns the precomputed code of input, or -1 if input is not part of the alphabet.
+   */
+  private int lookup(char input) {
+    if (offsetMapping) {
+      int code = input - lookupOffset;
+      if (code >= 0 && code < alphabetSize) {
+        return code;
+      }
+    } else if (lookupTable != null) {
+      int index = input - lookupOffset;
+      if (index >= 0 && index < lookupTable.length) {
+        return lookupTable[index];
+      }
+    } else {
+      int mask = hashedCodes.length - 1;
+      for (int slot = hashSlot(input); hashedCodes[slot] != -1; slot = (slot + 1) & mask) {
+        if (hashedCharacters[slot] == input) {
+          return hashedCodes[slot];
+        }
+      }
+    }
+    return -1;
+  }
+
   /**
    * getAlphabet returns all characters in our org.marukku.ukkonenscs.alphabet.
    *
@@ -53,4 +171,15 @@ public class LanguageParameter {
   public int getAlphabetSize() {
     return alphabetSize;
   }
+
+  /**
+   * Returns whether all characters of the alphabet are in range(0, 255), so that texts of the
+   * language can be scanned byte by byte (every byte b is read as the character (char) (b &amp;
+   * 0xFF), like in ISO-8859-1).
+   *
+   * @return true if the alphabet is a byte alphabet
+   */
+  public boolean isByteLanguage() {
+    return byteLanguage;
+  }
 }
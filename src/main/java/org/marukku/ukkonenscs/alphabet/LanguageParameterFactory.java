@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Factory to create LanguageParameters.
@@ -91,4 +92,14 @@ public class LanguageParameterFactory {
   public static LanguageParameter defaultParameter =
       new LanguageParameter(26, myChar -> myChar - 'a', lowerCaseStandardAlphabet);
 
+  private static final List<Character> byteAlphabet =
+      IntStream.range(0, 256).mapToObj(c -> (char) c).collect(Collectors.toList());
+
+  /**
+   * The language of all 256 byte values, read as the characters (char) 0 to (char) 255. It can be
+   * used to scan arbitrary binary or ASCII texts byte by byte.
+   */
+  public static LanguageParameter byteParameter =
+      new LanguageParameter(256, myChar -> (int) myChar, byteAlphabet);
+
 }
@@ -0,0 +1,41 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.metrics;
+
+/**
+ * Receives the duration, allocation and sizes of the phases of a trie or superstring build. Pass
+ * one to {@link org.marukku.ukkonenscs.actrie.AhoCorasickTrieFactory} or {@link
+ * org.marukku.ukkonenscs.ukkonenscsfinder.UkkonenSCSFinder#createFromParams(java.util.List,
+ * org.marukku.ukkonenscs.alphabet.LanguageParameter,
+ * org.marukku.ukkonenscs.trienodes.TransitionStrategy, BuildListener)}; builds without a listener
+ * do not measure anything. {@link BuildMetrics} collects all reports.
+ *
+ * <p>Listeners are called on the building thread, right after the phase finished.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public interface BuildListener {
+
+  /**
+   * Called when phase finished.
+   *
+   * @param phase          the {@link BuildPhase} that finished
+   * @param durationNanos  the wall time of the phase in nanoseconds
+   * @param allocatedBytes the bytes the building thread allocated during the phase, or -1 if the
+   *                       JVM cannot measure it
+   */
+  void onPhase(BuildPhase phase, long durationNanos, long allocatedBytes);
+
+  /**
+   * Called when a size of the build is known.
+   *
+   * @param size  the {@link BuildSize} which is reported
+   * @param value its value
+   */
+  default void onSize(BuildSize size, long value) {
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A {@link BuildListener} which keeps everything reported to it, so a build can be inspected (or
+ * logged) after it finished.
+ *
+ * <p>Example Usage:
+ * <pre>
+ *   {@code
+ *   BuildMetrics metrics = new BuildMetrics();
+ *   String scs = UkkonenSCSFinder.createFromParams(keys, params, TransitionStrategy.DENSE, metrics)
+ *                    .getSCS();
+ *   System.out.println(metrics);
+ *   }
+ * </pre>
+ *
+ * <p>A phase which runs repeatedly (i.e. SUPERSTRING if the superstring is written twice) keeps its
+ * last measurement.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class BuildMetrics implements BuildListener {
+
+  private final Map<BuildPhase, Long> durations = new EnumMap<>(BuildPhase.class);
+  private final Map<BuildPhase, Long> allocations = new EnumMap<>(BuildPhase.class);
+  private final Map<BuildSize, Long> sizes = new EnumMap<>(BuildSize.class);
+
+  @Override
+  public synchronized void onPhase(BuildPhase phase, long durationNanos, long allocatedBytes) {
+    durations.put(phase, durationNanos);
+    allocations.put(phase, allocatedBytes);
+  }
+
+  @Override
+  public synchronized void onSize(BuildSize size, long value) {
+    sizes.put(size, value);
+  }
+
+  /**
+   * Returns the wall time of phase in nanoseconds, or -1 if it did not run.
+   *
+   * @param phase the {@link BuildPhase} we are interested in
+   * @return the duration of the phase
+   */
+  public synchronized long getDurationNanos(BuildPhase phase) {
+    return durations.getOrDefault(phase, -1L);
+  }
+
+  /**
+   * Returns the bytes allocated during phase, or -1 if it did not run or allocation could not be
+   * measured.
+   *
+   * @param phase the {@link BuildPhase} we are interested in
+   * @return the allocation of the phase
+   */
+  public synchronized long getAllocatedBytes(BuildPhase phase) {
+    return allocations.getOrDefault(phase, -1L);
+  }
+
+  /**
+   * Returns the reported value of size, or -1 if it was not reported.
+   *
+   * @param size the {@link BuildSize} we are interested in
+   * @return the value of the size
+   */
+  public synchronized long getSize(BuildSize size) {
+    return sizes.getOrDefault(size, -1L);
+  }
+
+  /**
+   * Returns the total length of the keys divided by the length of the superstring, or NaN if no
+   * superstring was written yet.
+   *
+   * @return the compression ratio of the superstring
+   */
+  public synchronized double getCompressionRatio() {
+    if (!sizes.containsKey(BuildSize.INPUT_LENGTH)
+        || !sizes.containsKey(BuildSize.SUPERSTRING_LENGTH)) {
+      return Double.NaN;
+    }
+    return (double) sizes.get(BuildSize.INPUT_LENGTH) / sizes.get(BuildSize.SUPERSTRING_LENGTH);
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder builder = new StringBuilder("BuildMetrics{");
+    for (Map.Entry<BuildPhase, Long> duration : durations.entrySet()) {
+      builder.append(duration.getKey()).append('=').append(duration.getValue() / 1_000_000)
+          .append("ms/").append(allocations.get(duration.getKey())).append("B, ");
+    }
+    for (Map.Entry<BuildSize, Long> size : sizes.entrySet()) {
+      builder.append(size.getKey()).append('=').append(size.getValue()).append(", ");
+    }
+    return builder.append("compressionRatio=").append(getCompressionRatio()).append('}')
+               .toString();
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.metrics;
+
+/**
+ * The phases of building an {@link org.marukku.ukkonenscs.actrie.AhoCorasickTrie} and of finding a
+ * superstring with the {@link org.marukku.ukkonenscs.ukkonenscsfinder.UkkonenSCSFinder}, in the
+ * order they run.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public enum BuildPhase {
+
+  /**
+   * Inserting the keys into the trie (the goto function).
+   */
+  SUCCESSOR_FUNCTION,
+
+  /**
+   * Computing the failure function and the output links.
+   */
+  FAILURE_FUNCTION,
+
+  /**
+   * Building the DFA transitions (only with {@link org.marukku.ukkonenscs.actrie.DFAMode#EAGER}).
+   */
+  DFA,
+
+  /**
+   * Ukkonen's preprocessing: depths, supporters, reduction of the overlap graph and the reverse
+   * bfs order.
+   */
+  PREPROCESS_TRIE,
+
+  /**
+   * Selecting the overlaps of the greedy hamilton path.
+   */
+  HAMILTON_PATH,
+
+  /**
+   * Writing the superstring (getSCS or writeSCS).
+   */
+  SUPERSTRING
+}
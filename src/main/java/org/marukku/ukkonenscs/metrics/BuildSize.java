@@ -0,0 +1,52 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.metrics;
+
+/**
+ * The sizes reported to a {@link BuildListener} while a trie or a superstring is built.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public enum BuildSize {
+
+  /**
+   * The number of nodes of the trie, including the root.
+   */
+  NODE_COUNT,
+
+  /**
+   * The number of keys the superstring has to contain.
+   */
+  KEY_COUNT,
+
+  /**
+   * The number of keys in the reduced overlap graph, i.e. the keys which are not a substring of
+   * another key.
+   */
+  REDUCED_KEY_COUNT,
+
+  /**
+   * The number of overlaps the greedy heuristic selected.
+   */
+  GREEDY_EDGE_COUNT,
+
+  /**
+   * The number of paths the greedy heuristic could not connect any further; the superstring
+   * concatenates them.
+   */
+  COMPONENT_COUNT,
+
+  /**
+   * The total length of all keys.
+   */
+  INPUT_LENGTH,
+
+  /**
+   * The length of the superstring.
+   */
+  SUPERSTRING_LENGTH
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures a single {@link BuildPhase} for a {@link BuildListener}. Builds without a listener get a
+ * shared timer which does nothing, so they neither read clocks nor allocate.
+ *
+ * <p>Example Usage:
+ * <pre>
+ *   {@code
+ *   PhaseTimer timer = PhaseTimer.start(listener, BuildPhase.DFA);
+ *   buildDFA();
+ *   timer.stop();
+ *   }
+ * </pre>
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class PhaseTimer {
+
+  private static final PhaseTimer NONE = new PhaseTimer(null, null);
+
+  private final BuildListener listener;
+  private final BuildPhase phase;
+  private final long startNanos;
+  private final long startBytes;
+
+  private PhaseTimer(BuildListener listener, BuildPhase phase) {
+    this.listener = listener;
+    this.phase = phase;
+    this.startBytes = listener == null ? 0 : allocatedBytes();
+    this.startNanos = listener == null ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Starts measuring phase.
+   *
+   * @param listener the {@link BuildListener} receiving the measurement, may be null
+   * @param phase    the {@link BuildPhase} which starts
+   * @return the running timer
+   */
+  public static PhaseTimer start(BuildListener listener, BuildPhase phase) {
+    return listener == null ? NONE : new PhaseTimer(listener, phase);
+  }
+
+  /**
+   * Reports size to listener, if there is one.
+   *
+   * @param listener the {@link BuildListener} receiving the size, may be null
+   * @param size     the {@link BuildSize} which is reported
+   * @param value    its value
+   */
+  public static void report(BuildListener listener, BuildSize size, long value) {
+    if (listener != null) {
+      listener.onSize(size, value);
+    }
+  }
+
+  /**
+   * Stops measuring and reports the phase to the listener.
+   */
+  public void stop() {
+    if (listener != null) {
+      long durationNanos = System.nanoTime() - startNanos;
+      long endBytes = allocatedBytes();
+      listener.onPhase(phase, durationNanos, startBytes == -1 ? -1 : endBytes - startBytes);
+    }
+  }
+
+  private static long allocatedBytes() {
+    return Allocation.THREADS == null ? -1
+        : Allocation.THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Holds the bean measuring allocation, loaded on the first measured build only.
+   */
+  private static final class Allocation {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if (threads instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+          && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+        return (com.sun.management.ThreadMXBean) threads;
+      }
+      return null;
+    }
+  }
+}
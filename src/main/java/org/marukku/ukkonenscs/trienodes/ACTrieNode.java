@@ -6,6 +6,7 @@
 package org.marukku.ukkonenscs.trienodes;
 
 import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,10 +16,12 @@ import java.util.List;
  * and can be used to create a DFA.
  *
  * <p>Note on the implementation: The goto function (successorNodes) maps characters to integers to
- * ACTrieNodes. We do this to make use of fast array access in small alphabets. It scales badly for
- * large alphabets because we need to keep a list the size of the org.marukku.ukkonenscs.alphabet with each node. It would
- * be more efficient to switch to an implementation based on HashMap[Character, Integer] in such
- * cases.
+ * ACTrieNodes. How this map is stored depends on the {@link TransitionStrategy} of the node. With
+ * {@link TransitionStrategy#DENSE} we make use of fast array access, which scales badly for large
+ * alphabets because we need to keep an array the size of the alphabet with each node. With
+ * {@link TransitionStrategy#ADAPTIVE} each node picks a representation by its fan-out, and the
+ * DFA only stores the transitions which differ from those of the root, so that memory grows with
+ * the number of edges instead.
  *
  * @author Markus Walder
  * @since 26.12.2020, Sa.
@@ -26,31 +29,62 @@ import java.util.List;
 public class ACTrieNode {
 
   public LanguageParameter parameters;
-  protected List<ACTrieNode> successorNodes; //Null means we need to check Fail
+  protected TransitionTable successorNodes; //Null means we need to check Fail
   protected ACTrieNode fail;
+  private final TransitionStrategy strategy;
 
   public boolean isEndOfWord;
   public char parentChar;
 
-  public List<String> output = new ArrayList<>();
+  /**
+   * id is the position of this node in the list of trie nodes of the trie that created it. The
+   * root node always has id 0.
+   */
+  public int id;
+  /**
+   * keywordId is the index of the keyword ending at this node, or -1 if no keyword ends here.
+   */
+  public int keywordId = -1;
+
+  /**
+   * outputLink is the nearest node on the failure path of this node at which a keyword ends (i.e.
+   * the next output of a match ending here), or null if there is none. Together with keywordId it
+   * replaces a list of all outputs of the node, which costs memory quadratic in the nesting depth
+   * of the keywords ("a", "aa", "aaa", ...).
+   */
+  public ACTrieNode outputLink;
 
 
   protected ACTrieNode(LanguageParameter parameters, boolean isEndOfWord, char pch) {
+    this(parameters, isEndOfWord, pch, TransitionStrategy.DENSE);
+  }
+
+  protected ACTrieNode(LanguageParameter parameters, boolean isEndOfWord, char pch,
+      TransitionStrategy strategy) {
     int alphabetSize = parameters.getAlphabetSize();
     this.parameters = parameters;
+    this.strategy = strategy;
 
-    this.successorNodes = new ArrayList<>(alphabetSize);
-    this.dfaTransitions = new ArrayList<>(alphabetSize);
-
-    for (int i = 0; i < alphabetSize; i++) {
-      successorNodes.add(null);
-      dfaTransitions.add(null);
+    //DFA tables are only allocated once the DFA is built
+    if (strategy == TransitionStrategy.DENSE) {
+      this.successorNodes = TransitionTable.createDense(alphabetSize);
+    } else {
+      this.successorNodes = TransitionTable.createAdaptive();
     }
 
     this.isEndOfWord = isEndOfWord;
     parentChar = pch;
   }
 
+  /**
+   * Returns the {@link TransitionStrategy} this node stores its transitions with.
+   *
+   * @return the transition strategy of the node
+   */
+  public TransitionStrategy getTransitionStrategy() {
+    return strategy;
+  }
+
   //TRIE FUNCTIONS
 
   /**
@@ -66,7 +100,11 @@ public class ACTrieNode {
   }
 
   public void setNextNode(char input, ACTrieNode node) {
-    successorNodes.set(parameters.map(input), node);
+    setNextNodeByCode(parameters.map(input), node);
+  }
+
+  private void setNextNodeByCode(int code, ACTrieNode node) {
+    successorNodes = successorNodes.put(code, node, parameters.getAlphabetSize());
   }
 
   /**
@@ -86,40 +124,222 @@ public class ACTrieNode {
 
 
   /**
-   * Utility method that returns all (even null) successors in the AC-Trie.
+   * Utility method that returns all (even null) successors in the AC-Trie, indexed by the mapped
+   * character. The list is a view of the goto function and supports set.
    *
    * @return List[ACTrieNode] a list of all successor tree nodes
    */
   public List<ACTrieNode> getSuccessorNodes() {
-    return successorNodes;
+    return new AbstractList<>() {
+      @Override
+      public ACTrieNode get(int index) {
+        return successorNodes.get(index);
+      }
+
+      @Override
+      public ACTrieNode set(int index, ACTrieNode element) {
+        ACTrieNode previous = successorNodes.get(index);
+        setNextNodeByCode(index, element);
+        return previous;
+      }
+
+      @Override
+      public int size() {
+        return parameters.getAlphabetSize();
+      }
+    };
+  }
+
+  /**
+   * Returns the number of successor slots of this node. Together with getSuccessorInSlot this
+   * enumerates all successors in time proportional to the size of the underlying storage instead
+   * of the alphabet size.
+   *
+   * @return the number of successor slots
+   */
+  public int getSuccessorSlotCount() {
+    return successorNodes.slots();
+  }
+
+  /**
+   * Returns the successor stored in slot, or null if the slot is empty. Successors of dense and
+   * sparse sorted nodes are enumerated in the order of their mapped characters.
+   *
+   * @param slot an index in range(0, getSuccessorSlotCount()-1)
+   * @return the successor in slot or null
+   */
+  public ACTrieNode getSuccessorInSlot(int slot) {
+    return successorNodes.nodeAt(slot);
   }
 
   //DFS FUNCTIONS
-  private List<ACTrieNode> dfaTransitions;
+  /**
+   * The DFA transitions built by the trie (null as long as no DFA was built for this node).
+   */
+  private TransitionTable dfaTransitions;
+  /**
+   * The node whose DFA transitions are used whenever this node does not store its own (the root in
+   * adaptive nodes, null in dense nodes).
+   */
+  private ACTrieNode dfaDefault;
+  /**
+   * Memoized DFA transitions of nodes whose DFA was not built, by mapped character. Only
+   * transitions that follow the failure function are memoized. Dense nodes memoize into a dense
+   * table, adaptive nodes into an adaptive one, so that their memo grows with the characters that
+   * were actually read instead of the alphabet. Concurrent matchers may race on it, which is
+   * harmless: dense tables are only written by single reference stores, and adaptive tables are
+   * copied on write until they become dense, so readers never see a table that is being changed.
+   * At worst a transition is computed twice.
+   */
+  private volatile TransitionTable lazyDFATransitions;
 
   /**
    * Returns the next node in the constructed Aho-Corasick DFA, note that this is different to
    * getNextNode which returns the next node in the Trie. The DFA is more efficient at matching
    * strings because it combines the transition and failure function.
    *
+   * <p>If the trie was created without building the DFA (see {@link
+   * org.marukku.ukkonenscs.actrie.DFAMode#LAZY}), the transition is computed from the goto and
+   * failure functions on first use and memoized.
+   *
    * @param input Character used to determine next node
    * @return ACTrieNode the node reachable using input or null if there is no reachable node
    */
   public ACTrieNode getDFATransition(char input) {
-    return dfaTransitions.get(parameters.map(input));
+    return getDFATransitionByCode(parameters.map(input));
+  }
+
+  /**
+   * Returns the next node in the constructed Aho-Corasick DFA when reading the character with the
+   * given code, see {@link #getDFATransition(char)}.
+   *
+   * @param code the mapped character used to determine next node
+   * @return ACTrieNode the node reachable using code or null if there is no reachable node
+   */
+  public ACTrieNode getDFATransitionByCode(int code) {
+    if (dfaTransitions == null && dfaDefault == null) {
+      return getLazyDFATransition(code);
+    }
+    ACTrieNode next = dfaTransitions == null ? null : dfaTransitions.get(code);
+    if (next == null && dfaDefault != null) {
+      return dfaDefault.dfaTransitions.get(code);
+    }
+    return next;
+  }
+
+  private ACTrieNode getLazyDFATransition(int code) {
+    ACTrieNode child = successorNodes.get(code);
+    if (child != null || fail == null || fail == this) {
+      return child;
+    }
+
+    TransitionTable memo = lazyDFATransitions;
+    ACTrieNode next = memo == null ? null : memo.get(code);
+    if (next == null) {
+      next = fail.getDFATransitionByCode(code);
+      lazyDFATransitions = memoize(memo, code, next);
+    }
+    return next;
+  }
+
+  /**
+   * Stores node for code in the lazy memo (null removes it) and returns the memo to be published.
+   * Dense tables are changed in place, all others are copied first.
+   */
+  private TransitionTable memoize(TransitionTable memo, int code, ACTrieNode node) {
+    int alphabetSize = parameters.getAlphabetSize();
+    if (memo == null) {
+      memo = strategy == TransitionStrategy.DENSE
+          ? TransitionTable.createDense(alphabetSize)
+          : TransitionTable.createAdaptive();
+    } else if (!(memo instanceof TransitionTable.Dense)) {
+      TransitionTable copy = TransitionTable.createAdaptive();
+      for (int slot = 0; slot < memo.slots(); slot++) {
+        if (memo.nodeAt(slot) != null) {
+          copy = copy.put(memo.codeAt(slot), memo.nodeAt(slot), alphabetSize);
+        }
+      }
+      memo = copy;
+    }
+    return memo.put(code, node, alphabetSize);
   }
 
   public void setDFATransition(char input, ACTrieNode node) {
-    dfaTransitions.set(parameters.map(input), node);
+    if (dfaTransitions == null) {
+      dfaTransitions = strategy == TransitionStrategy.DENSE
+          ? TransitionTable.createDense(parameters.getAlphabetSize())
+          : TransitionTable.createAdaptive();
+    }
+    dfaTransitions = dfaTransitions.put(parameters.map(input), node, parameters.getAlphabetSize());
+  }
+
+  /**
+   * Replaces the DFA transition for input after the trie changed, e.g. because a keyword was
+   * inserted. Nodes without a built DFA only forget their memoized transition, it is recomputed
+   * from the goto and failure functions on next use. Adaptive nodes do not store transitions which
+   * equal those of the root.
+   *
+   * @param input Character whose transition changed
+   * @param node  the new DFA transition
+   */
+  public void updateDFATransition(char input, ACTrieNode node) {
+    int code = parameters.map(input);
+    if (dfaTransitions == null && dfaDefault == null) {
+      TransitionTable memo = lazyDFATransitions;
+      if (memo != null && memo.get(code) != null) {
+        lazyDFATransitions = memoize(memo, code, null);
+      }
+      return;
+    }
+    if (dfaDefault != null && dfaTransitions.get(code) == null
+            && dfaDefault.dfaTransitions.get(code) == node) {
+      return;
+    }
+    setDFATransition(input, node);
   }
 
   /**
-   * Returns all reachable nodes of the DFA node.
+   * Derives the DFA transitions of an adaptive node from the DFA transitions of its fail node. The
+   * node only stores transitions that differ from those of the root: its own successors and the
+   * stored transitions of the fail node it does not override. The fail node needs to be processed
+   * first (which a breadth-first traversal guarantees).
+   *
+   * @param rootNode the root of the trie, whose transitions are used as default
+   */
+  public void deriveSparseDFATransitions(ACTrieNode rootNode) {
+    int alphabetSize = parameters.getAlphabetSize();
+    dfaTransitions = TransitionTable.createAdaptive();
+    if (fail != rootNode) {
+      TransitionTable failTransitions = fail.dfaTransitions;
+      for (int slot = 0; slot < failTransitions.slots(); slot++) {
+        ACTrieNode target = failTransitions.nodeAt(slot);
+        int code = failTransitions.codeAt(slot);
+        if (target != null && successorNodes.get(code) == null) {
+          dfaTransitions = dfaTransitions.put(code, target, alphabetSize);
+        }
+      }
+    }
+
+    for (int slot = 0; slot < successorNodes.slots(); slot++) {
+      ACTrieNode child = successorNodes.nodeAt(slot);
+      if (child != null) {
+        dfaTransitions = dfaTransitions.put(successorNodes.codeAt(slot), child, alphabetSize);
+      }
+    }
+    dfaDefault = rootNode;
+  }
+
+  /**
+   * Returns all reachable nodes of the DFA node, indexed by the mapped character.
    *
    * @return List[ACTrieNode] the nodes reachable from this node
    */
   public List<ACTrieNode> getAllPossibleDFATransitions() {
-    return dfaTransitions;
+    List<ACTrieNode> transitions = new ArrayList<>(parameters.getAlphabetSize());
+    for (int code = 0; code < parameters.getAlphabetSize(); code++) {
+      transitions.add(getDFATransitionByCode(code));
+    }
+    return transitions;
   }
 
 
@@ -132,18 +352,10 @@ public class ACTrieNode {
    * @return Boolean - true if node is leaf in AC Graph
    */
   public boolean isLeafInAhoCorasickGraph() {
-    if (leafComputed) {
-      return leaf;
-    } else {
+    if (!leafComputed) {
       leafComputed = true;
-      for (ACTrieNode nextState : successorNodes) {
-        if (nextState != null) {
-          leaf = false;
-          return false;
-        }
-      }
-      leaf = true;
-      return true;
+      leaf = successorNodes.size() == 0;
     }
+    return leaf;
   }
-}
\ No newline at end of file
+}
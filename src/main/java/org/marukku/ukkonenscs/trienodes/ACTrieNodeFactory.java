@@ -15,6 +15,25 @@ import org.marukku.ukkonenscs.alphabet.LanguageParameter;
  */
 public class ACTrieNodeFactory implements AbstractACNodeFactory<ACTrieNode> {
 
+  private final TransitionStrategy strategy;
+
+  /**
+   * Creates a factory for nodes using {@link TransitionStrategy#DENSE}.
+   */
+  public ACTrieNodeFactory() {
+    this(TransitionStrategy.DENSE);
+  }
+
+  /**
+   * Creates a factory for nodes which store their transitions using strategy.
+   *
+   * @param strategy the {@link TransitionStrategy} of the created nodes
+   */
+  public ACTrieNodeFactory(TransitionStrategy strategy) {
+    this.strategy = strategy;
+  }
+
+
   /**
    * A simple factory method that takes a set of default parameters and then returns an {@link
    * ACTrieNode} to the caller. This is the most basic (default) factory.
@@ -28,6 +47,6 @@ public class ACTrieNodeFactory implements AbstractACNodeFactory<ACTrieNode> {
   @Override
   public ACTrieNode createFromDefaultValues(
       LanguageParameter parameters, boolean isEndOfWord, Character parentChar) {
-    return new ACTrieNode(parameters, isEndOfWord, parentChar);
+    return new ACTrieNode(parameters, isEndOfWord, parentChar, strategy);
   }
 }
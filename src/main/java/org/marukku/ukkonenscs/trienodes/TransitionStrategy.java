@@ -0,0 +1,29 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.trienodes;
+
+/**
+ * Defines how an {@link ACTrieNode} stores its goto function and DFA transitions.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public enum TransitionStrategy {
+
+  /**
+   * Every node keeps arrays the size of the alphabet. This is the fastest choice for small
+   * alphabets, but memory grows with nodes x alphabet size.
+   */
+  DENSE,
+
+  /**
+   * Every node picks its representation by fan-out: sorted code arrays for few transitions, open
+   * addressing tables for more and dense arrays for nodes (like the root) with many transitions.
+   * DFA transitions are only stored where they differ from the transitions of the root. Memory
+   * grows with the number of edges, which makes this the right choice for large alphabets.
+   */
+  ADAPTIVE
+}
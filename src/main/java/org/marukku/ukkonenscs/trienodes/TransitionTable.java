@@ -0,0 +1,303 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.trienodes;
+
+import java.util.Arrays;
+
+/**
+ * A map from mapped characters (codes in range(0, alphabetSize-1)) to {@link ACTrieNode}s. It is
+ * used to store the goto function and the DFA transitions of a node.
+ *
+ * <p>There are three representations: a dense array indexed by code, a sorted code array searched
+ * with binary search and an open addressing hash table. Tables created with {@link #createDense}
+ * always stay dense. Tables created with {@link #createAdaptive} start empty and are promoted
+ * (sorted, then hashed, then dense) as the number of entries grows; put returns the table that has
+ * to be used from then on.
+ *
+ * <p>Entries can be enumerated by slot: for all slots in range(0, slots()-1), nodeAt(slot) is
+ * either null or the node stored for codeAt(slot). Dense and sorted tables enumerate their entries
+ * in ascending code order, hash tables do not.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+abstract class TransitionTable {
+
+  /**
+   * The maximal number of entries kept in a sorted table.
+   */
+  static final int SORTED_LIMIT = 8;
+
+  static TransitionTable createDense(int alphabetSize) {
+    return new Dense(alphabetSize);
+  }
+
+  static TransitionTable createAdaptive() {
+    return Sorted.EMPTY;
+  }
+
+  abstract ACTrieNode get(int code);
+
+  /**
+   * Stores node for code (null removes the entry) and returns the table to be used afterwards.
+   */
+  abstract TransitionTable put(int code, ACTrieNode node, int alphabetSize);
+
+  abstract int size();
+
+  abstract int slots();
+
+  abstract int codeAt(int slot);
+
+  abstract ACTrieNode nodeAt(int slot);
+
+  /**
+   * Chooses the cheapest representation for a table with the given number of entries. A dense
+   * array costs one reference per character, a hash table about four words per entry.
+   */
+  private static TransitionTable promote(TransitionTable table, int entries, int alphabetSize) {
+    TransitionTable promoted;
+    if (4 * entries >= alphabetSize) {
+      promoted = new Dense(alphabetSize);
+    } else if (entries > SORTED_LIMIT && !(table instanceof Hashed)) {
+      promoted = new Hashed(entries);
+    } else {
+      return table;
+    }
+
+    for (int slot = 0; slot < table.slots(); slot++) {
+      if (table.nodeAt(slot) != null) {
+        promoted = promoted.put(table.codeAt(slot), table.nodeAt(slot), alphabetSize);
+      }
+    }
+    return promoted;
+  }
+
+  /**
+   * A dense array indexed by code.
+   */
+  static final class Dense extends TransitionTable {
+
+    private final ACTrieNode[] nodes;
+    private int size = 0;
+
+    Dense(int alphabetSize) {
+      nodes = new ACTrieNode[alphabetSize];
+    }
+
+    @Override
+    ACTrieNode get(int code) {
+      return nodes[code];
+    }
+
+    @Override
+    TransitionTable put(int code, ACTrieNode node, int alphabetSize) {
+      if (nodes[code] == null && node != null) {
+        size++;
+      } else if (nodes[code] != null && node == null) {
+        size--;
+      }
+      nodes[code] = node;
+      return this;
+    }
+
+    @Override
+    int size() {
+      return size;
+    }
+
+    @Override
+    int slots() {
+      return nodes.length;
+    }
+
+    @Override
+    int codeAt(int slot) {
+      return slot;
+    }
+
+    @Override
+    ACTrieNode nodeAt(int slot) {
+      return nodes[slot];
+    }
+  }
+
+  /**
+   * A small table of codes kept in ascending order.
+   */
+  static final class Sorted extends TransitionTable {
+
+    static final Sorted EMPTY = new Sorted(0);
+
+    private int[] codes;
+    private ACTrieNode[] nodes;
+    private int size = 0;
+
+    Sorted(int capacity) {
+      codes = new int[capacity];
+      nodes = new ACTrieNode[capacity];
+    }
+
+    @Override
+    ACTrieNode get(int code) {
+      int index = Arrays.binarySearch(codes, 0, size, code);
+      return index >= 0 ? nodes[index] : null;
+    }
+
+    @Override
+    TransitionTable put(int code, ACTrieNode node, int alphabetSize) {
+      int index = Arrays.binarySearch(codes, 0, size, code);
+      if (index >= 0) {
+        if (node != null) {
+          nodes[index] = node;
+        } else {
+          System.arraycopy(codes, index + 1, codes, index, size - index - 1);
+          System.arraycopy(nodes, index + 1, nodes, index, size - index - 1);
+          nodes[--size] = null;
+        }
+        return this;
+      }
+      if (node == null) {
+        return this;
+      }
+
+      TransitionTable promoted = promote(this, size + 1, alphabetSize);
+      if (promoted != this) {
+        return promoted.put(code, node, alphabetSize);
+      }
+
+      Sorted target = this;
+      if (this == EMPTY) {
+        target = new Sorted(1);
+      } else if (size == codes.length) {
+        codes = Arrays.copyOf(codes, Math.min(2 * size, SORTED_LIMIT));
+        nodes = Arrays.copyOf(nodes, codes.length);
+      }
+
+      int insertion = -(index + 1);
+      System.arraycopy(target.codes, insertion, target.codes, insertion + 1,
+          target.size - insertion);
+      System.arraycopy(target.nodes, insertion, target.nodes, insertion + 1,
+          target.size - insertion);
+      target.codes[insertion] = code;
+      target.nodes[insertion] = node;
+      target.size++;
+      return target;
+    }
+
+    @Override
+    int size() {
+      return size;
+    }
+
+    @Override
+    int slots() {
+      return size;
+    }
+
+    @Override
+    int codeAt(int slot) {
+      return codes[slot];
+    }
+
+    @Override
+    ACTrieNode nodeAt(int slot) {
+      return nodes[slot];
+    }
+  }
+
+  /**
+   * An open addressing hash table with linear probing, kept at most half full.
+   */
+  static final class Hashed extends TransitionTable {
+
+    private int[] codes;
+    private ACTrieNode[] nodes;
+    private int size = 0;
+
+    Hashed(int expectedEntries) {
+      int capacity = Integer.highestOneBit(Math.max(expectedEntries, 2) * 2 - 1) << 1;
+      codes = new int[capacity];
+      nodes = new ACTrieNode[capacity];
+    }
+
+    private int slotOf(int code) {
+      int mask = codes.length - 1;
+      int slot = (code * 0x9E3779B9 >>> 16) & mask;
+      while (nodes[slot] != null && codes[slot] != code) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    @Override
+    ACTrieNode get(int code) {
+      return nodes[slotOf(code)];
+    }
+
+    @Override
+    TransitionTable put(int code, ACTrieNode node, int alphabetSize) {
+      int slot = slotOf(code);
+      if (nodes[slot] != null) {
+        if (node != null) {
+          nodes[slot] = node;
+          return this;
+        }
+        //Rebuild without the entry, removals are rare
+        nodes[slot] = null;
+        Hashed rebuilt = new Hashed(size);
+        for (int i = 0; i < codes.length; i++) {
+          if (nodes[i] != null) {
+            rebuilt.put(codes[i], nodes[i], alphabetSize);
+          }
+        }
+        return rebuilt;
+      }
+      if (node == null) {
+        return this;
+      }
+
+      TransitionTable promoted = promote(this, size + 1, alphabetSize);
+      if (promoted != this) {
+        return promoted.put(code, node, alphabetSize);
+      }
+      if (2 * (size + 1) > codes.length) {
+        Hashed grown = new Hashed(size + 1);
+        for (int i = 0; i < codes.length; i++) {
+          if (nodes[i] != null) {
+            grown.put(codes[i], nodes[i], alphabetSize);
+          }
+        }
+        return grown.put(code, node, alphabetSize);
+      }
+
+      codes[slot] = code;
+      nodes[slot] = node;
+      size++;
+      return this;
+    }
+
+    @Override
+    int size() {
+      return size;
+    }
+
+    @Override
+    int slots() {
+      return codes.length;
+    }
+
+    @Override
+    int codeAt(int slot) {
+      return codes[slot];
+    }
+
+    @Override
+    ACTrieNode nodeAt(int slot) {
+      return nodes[slot];
+    }
+  }
+}
@@ -10,6 +10,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
  * UkkonenTrieNode is a subclass of ACTrieNode which adds functionality (depth, supporters,
@@ -36,7 +38,12 @@ public class UkkonenTrieNode extends ACTrieNode {
   public LinkedList<Integer> pCandidate = new LinkedList<>();
 
   protected UkkonenTrieNode(LanguageParameter parameters, boolean isEndOfWord, char pch) {
-    super(parameters, isEndOfWord, pch);
+    this(parameters, isEndOfWord, pch, TransitionStrategy.DENSE);
+  }
+
+  protected UkkonenTrieNode(LanguageParameter parameters, boolean isEndOfWord, char pch,
+      TransitionStrategy strategy) {
+    super(parameters, isEndOfWord, pch, strategy);
     supportedKeys = new ArrayList<>();
   }
 
@@ -49,20 +56,23 @@ public class UkkonenTrieNode extends ACTrieNode {
    * @return UkkonenTrieNode the node reachable using input or null if there is no reachable node
    */
   public UkkonenTrieNode getNextNode(char input) {
-    return (UkkonenTrieNode) successorNodes.get(parameters.map(input));
+    return (UkkonenTrieNode) super.getNextNode(input);
   }
 
   public void setNextNode(char input, UkkonenTrieNode node) {
-    successorNodes.set(parameters.map(input), node);
+    super.setNextNode(input, node);
   }
 
   /**
-   * Returns an iterator over all successor nodes casted to UkkonenTrieNodes.
+   * Returns an iterator over all (non-null) successor nodes casted to UkkonenTrieNodes.
    *
    * @return Iterator[UkkonenTrieNodes] over all successors of this node
    */
   public Iterator<UkkonenTrieNode> iterator() {
-    return successorNodes.stream().map(node -> (UkkonenTrieNode) node).iterator();
+    return IntStream.range(0, getSuccessorSlotCount())
+               .mapToObj(slot -> (UkkonenTrieNode) getSuccessorInSlot(slot))
+               .filter(Objects::nonNull)
+               .iterator();
   }
 
   /**
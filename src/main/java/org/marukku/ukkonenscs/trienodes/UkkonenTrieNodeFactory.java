@@ -16,6 +16,25 @@ import org.marukku.ukkonenscs.alphabet.LanguageParameter;
  */
 public class UkkonenTrieNodeFactory implements AbstractACNodeFactory<UkkonenTrieNode> {
 
+  private final TransitionStrategy strategy;
+
+  /**
+   * Creates a factory for nodes using {@link TransitionStrategy#DENSE}.
+   */
+  public UkkonenTrieNodeFactory() {
+    this(TransitionStrategy.DENSE);
+  }
+
+  /**
+   * Creates a factory for nodes which store their transitions using strategy.
+   *
+   * @param strategy the {@link TransitionStrategy} of the created nodes
+   */
+  public UkkonenTrieNodeFactory(TransitionStrategy strategy) {
+    this.strategy = strategy;
+  }
+
+
   /**
    * A simple factory method that takes a set of default parameters and then returns a new Suffix
    * Trie Node supporting Ukkonens' Algorithm based on it.
@@ -29,6 +48,6 @@ public class UkkonenTrieNodeFactory implements AbstractACNodeFactory<UkkonenTrie
   @Override
   public UkkonenTrieNode createFromDefaultValues(
       LanguageParameter parameters, boolean isEndOfWord, Character parentChar) {
-    return new UkkonenTrieNode(parameters, isEndOfWord, parentChar);
+    return new UkkonenTrieNode(parameters, isEndOfWord, parentChar, strategy);
   }
 }
@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves many small, independent SCS problems (key sets) on a {@link ForkJoinPool}. Creating a
+ * {@link UkkonenSCSFinder} per key set allocates language parameters, nodes and lists for every
+ * problem, which dominates the run time of small problems. Here every worker owns a workspace
+ * whose trie and scratch arrays are reused from problem to problem and only grow with the largest
+ * key set seen, so the allocation rate stays flat and the throughput scales with the workers.
+ *
+ * <p>Every superstring equals the one of {@link UkkonenSCSFinder#createFromKeys} for the same key
+ * set. Workspaces belong to the solver and survive between batches; a solver runs one batch at a
+ * time.
+ *
+ * <p>Example Usage:
+ * <pre>
+ * {@code
+ *    BatchSCSSolver solver = BatchSCSSolver.create(ForkJoinPool.commonPool());
+ *    List<String> superstrings = solver.solveAll(keySets);
+ *    solver.solveAll(keySets.iterator(), (index, scs) -> sink.write(index, scs));
+ * }
+ * </pre>
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class BatchSCSSolver {
+
+  private final ForkJoinPool pool;
+  private final SCSWorkspace[] workspaces;
+
+  private BatchSCSSolver(ForkJoinPool pool, int workerCount) {
+    if (workerCount < 1) {
+      throw new IllegalArgumentException("A BatchSCSSolver needs at least one worker");
+    }
+    this.pool = pool;
+    this.workspaces = new SCSWorkspace[workerCount];
+    for (int i = 0; i < workerCount; i++) {
+      workspaces[i] = new SCSWorkspace();
+    }
+  }
+
+  //Static Factory Methods
+
+  /**
+   * Creates a BatchSCSSolver with one worker per thread of pool.
+   *
+   * @param pool the {@link ForkJoinPool} the workers run on
+   * @return the new BatchSCSSolver
+   */
+  public static BatchSCSSolver create(ForkJoinPool pool) {
+    return new BatchSCSSolver(pool, pool.getParallelism());
+  }
+
+  /**
+   * Creates a BatchSCSSolver with workerCount workers, each with its own workspace.
+   *
+   * @param pool        the {@link ForkJoinPool} the workers run on
+   * @param workerCount the number of problems solved concurrently
+   * @return the new BatchSCSSolver
+   * @throws IllegalArgumentException if workerCount is smaller than 1
+   */
+  public static BatchSCSSolver create(ForkJoinPool pool, int workerCount) {
+    return new BatchSCSSolver(pool, workerCount);
+  }
+
+  /**
+   * Solves all key sets of problems.
+   *
+   * @param problems the key sets
+   * @return the superstring of every key set, in the order of problems
+   */
+  public synchronized List<String> solveAll(List<? extends List<String>> problems) {
+    String[] superstrings = new String[problems.size()];
+    AtomicInteger nextProblem = new AtomicInteger();
+    runWorkers(workspace -> {
+      for (int i = nextProblem.getAndIncrement(); i < superstrings.length;
+          i = nextProblem.getAndIncrement()) {
+        superstrings[i] = workspace.solve(problems.get(i)).toString();
+      }
+    });
+    return Arrays.asList(superstrings);
+  }
+
+  /**
+   * Solves the key sets of a stream of problems, which may be too long to be held in memory, and
+   * reports every superstring to listener as soon as it is computed. Besides what the iterator
+   * allocates, warm workers do not allocate anything per problem.
+   *
+   * @param problems an iterator over the key sets; it is only accessed by one worker at a time
+   * @param listener the {@link SuperstringListener} receiving the superstrings (concurrently)
+   */
+  public synchronized void solveAll(Iterator<? extends List<String>> problems,
+      SuperstringListener listener) {
+    long[] nextIndex = new long[1];
+    runWorkers(workspace -> {
+      while (true) {
+        List<String> keys;
+        long index;
+        synchronized (nextIndex) {
+          if (!problems.hasNext()) {
+            return;
+          }
+          keys = problems.next();
+          index = nextIndex[0]++;
+        }
+        listener.onSuperstring(index, workspace.solve(keys));
+      }
+    });
+  }
+
+  /**
+   * Runs worker on every workspace and waits for all of them, so that no workspace is still in use
+   * when the batch ends (even if a worker failed).
+   */
+  private void runWorkers(Worker worker) {
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(workspaces.length);
+    for (SCSWorkspace workspace : workspaces) {
+      tasks.add(pool.submit(() -> worker.run(workspace)));
+    }
+
+    RuntimeException failure = null;
+    for (ForkJoinTask<?> task : tasks) {
+      try {
+        task.join();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Worker {
+
+    void run(SCSWorkspace workspace);
+  }
+}
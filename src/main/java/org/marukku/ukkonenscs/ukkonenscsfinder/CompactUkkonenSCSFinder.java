@@ -0,0 +1,218 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.BitSet;
+import java.util.List;
+import org.marukku.ukkonenscs.actrie.AhoCorasickTrieFactory;
+import org.marukku.ukkonenscs.actrie.DoubleArrayAhoCorasickTrie;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * A variant of {@link UkkonenSCSFinder} which keeps all per-node and per-key state in primitive
+ * columns indexed by state id and key id instead of node objects, boxed lists and hash maps. The
+ * trie is a {@link DoubleArrayAhoCorasickTrie} (built without a DFA, which Ukkonen's algorithm
+ * never uses), whose states are numbered in breadth-first order. The reverse bfs order is thus
+ * simply the descending order of the state ids.
+ *
+ * <p>It runs exactly the same algorithm as {@link UkkonenSCSFinder} and produces the same
+ * superstring, but needs a fraction of the memory and puts almost no pressure on the garbage
+ * collector.
+ *
+ * <p>Example Usage:
+ * <pre>
+ * {@code
+ *    List<String> keys = List.of("aki", "ele", "kiki", "kira", "lea");
+ *    CompactUkkonenSCSFinder finder = CompactUkkonenSCSFinder.createFromKeys(keys);
+ *    String scs = finder.getSCS();
+ * }
+ * </pre>
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class CompactUkkonenSCSFinder {
+
+  private static final int ROOT = 0;
+
+  private final List<String> keyWords;
+  private final DoubleArrayAhoCorasickTrie trie;
+
+  //Per state columns
+  int[] depth;
+  /**
+   * The keys supported by state s (the keys whose path in the trie passes s) are
+   * supporters[supporterStart[s] .. supporterStart[s + 1]).
+   */
+  int[] supporterStart;
+  int[] supporters;
+
+  //Per key columns
+  /**
+   * keyEndState at position i is the state at which key i ends.
+   */
+  private final int[] keyEndState;
+  /**
+   * forbidden is set for key i, if our current hamilton path already contains an overlap ending in
+   * key i, or if key i is not part of the reduced graph.
+   */
+  private final BitSet forbidden;
+  /**
+   * successor at position i is the key following key i in the hamilton path (or -1), overlap at
+   * position i the length of the overlap between both keys.
+   */
+  private final int[] successor;
+  private final int[] overlap;
+
+  private CompactUkkonenSCSFinder(List<String> keyWords, LanguageParameter params) {
+    this.keyWords = keyWords;
+    this.trie = AhoCorasickTrieFactory.createDoubleArrayTrieWithoutDFA(keyWords, params);
+
+    int keyCount = keyWords.size();
+    keyEndState = new int[keyCount];
+    forbidden = new BitSet(keyCount);
+    successor = new int[keyCount];
+    overlap = new int[keyCount];
+
+    preprocessTrie();
+    greedilyBuildHamiltonPath();
+  }
+
+  //Static Factory Methods
+
+  /**
+   * Creates a CompactUkkonenSCSFinder from the list of words for which we want to generate an
+   * approximate SCS. The {@link LanguageParameter} will be automatically generated from the
+   * keyWords. See {@link LanguageParameterFactory}.
+   *
+   * @param keyWords a list of strings for which we want to generate a SCS
+   * @return an instance of CompactUkkonenSCSFinder for our parameters
+   */
+  public static CompactUkkonenSCSFinder createFromKeys(List<String> keyWords) {
+    return new CompactUkkonenSCSFinder(keyWords,
+        LanguageParameterFactory.createLanguageParametersFromKeys(keyWords));
+  }
+
+  /**
+   * Creates a CompactUkkonenSCSFinder from the list of words for which we want to generate an
+   * approximate SCS and the parameters of the underlying language.
+   *
+   * @param keyWords a list of strings for which we want to generate an SCS
+   * @param params   language parameters that define the language of the words used in keyWords
+   * @return an instance of CompactUkkonenSCSFinder for our parameters
+   */
+  public static CompactUkkonenSCSFinder createFromParams(List<String> keyWords,
+      LanguageParameter params) {
+    return new CompactUkkonenSCSFinder(keyWords, params);
+  }
+
+  /**
+   * Calculates the depth and the supporters of each state. Depth information is collected while
+   * walking the keys, so the trie never has to be traversed by its children.
+   */
+  private void preprocessTrie() {
+    int stateCount = trie.getStateCount();
+    depth = new int[stateCount];
+    supporterStart = new int[stateCount + 1];
+
+    //Count the supporters and collect depth information
+    for (int i = 0; i < keyWords.size(); i++) {
+      String key = keyWords.get(i);
+      int state = ROOT;
+      supporterStart[ROOT + 1]++;
+
+      for (int j = 0; j < key.length(); j++) {
+        state = trie.getNextState(state, key.charAt(j));
+        depth[state] = j + 1;
+        supporterStart[state + 1]++;
+      }
+    }
+    for (int state = 0; state < stateCount; state++) {
+      supporterStart[state + 1] += supporterStart[state];
+    }
+
+    //Fill the supporters in key order
+    int[] fill = new int[stateCount];
+    supporters = new int[supporterStart[stateCount]];
+    for (int i = 0; i < keyWords.size(); i++) {
+      String key = keyWords.get(i);
+      int state = ROOT;
+      supporters[supporterStart[ROOT] + fill[ROOT]++] = i;
+
+      for (int j = 0; j < key.length(); j++) {
+        state = trie.getNextState(state, key.charAt(j));
+        supporters[supporterStart[state] + fill[state]++] = i;
+      }
+      keyEndState[i] = state;
+    }
+  }
+
+  /**
+   * Reduces the graph and builds the approximately longest hamilton path, see {@link
+   * GreedyHamiltonPath}. The states of the trie are numbered in bfs order.
+   */
+  private void greedilyBuildHamiltonPath() {
+    int stateCount = trie.getStateCount();
+    int[] fail = new int[stateCount];
+    for (int state = 0; state < stateCount; state++) {
+      fail[state] = trie.getFail(state);
+    }
+    new GreedyHamiltonPath().build(stateCount, null, fail, depth, supporterStart, supporters,
+        keyEndState, keyWords.size(), forbidden, successor, overlap);
+  }
+
+  /**
+   * getSCS returns the SCS generated by Ukkonens algorithm. It pieces together the disconnected
+   * components in the Hamilton Path which can no longer be combined using the greedy heuristic.
+   *
+   * @return the approximate shortest common superstring generated by the algorithm
+   */
+  public String getSCS() {
+    return createSuperstringWriter().asString();
+  }
+
+  /**
+   * Writes the SCS generated by Ukkonens algorithm to out, component by component, without
+   * creating intermediate Strings. Use this for superstrings too large to be held in memory.
+   *
+   * @param out the {@link Appendable} (i.e. a {@link java.io.Writer}) receiving the superstring
+   * @throws IOException if out throws
+   */
+  public void writeSCS(Appendable out) throws IOException {
+    createSuperstringWriter().writeTo(out);
+  }
+
+  /**
+   * Writes the SCS generated by Ukkonens algorithm to channel, encoded using charset, without
+   * creating intermediate Strings.
+   *
+   * @param channel the {@link WritableByteChannel} receiving the superstring
+   * @param charset the {@link Charset} used to encode the superstring
+   * @throws IOException if writing to the channel fails
+   */
+  public void writeSCS(WritableByteChannel channel, Charset charset) throws IOException {
+    createSuperstringWriter().writeTo(channel, charset);
+  }
+
+  /**
+   * Returns the hamilton path built by the greedy phase as an {@link OverlapPath}: the order of the
+   * keys in the superstring, the overlaps between consecutive keys and the component boundaries.
+   * The components are ordered by their first keys, exactly like in getSCS.
+   *
+   * @return the overlap path of the superstring
+   */
+  public OverlapPath getOverlapPath() {
+    return OverlapPath.fromSuccessors(forbidden, successor, overlap);
+  }
+
+  private SuperstringWriter createSuperstringWriter() {
+    return new SuperstringWriter(keyWords, getOverlapPath());
+  }
+}
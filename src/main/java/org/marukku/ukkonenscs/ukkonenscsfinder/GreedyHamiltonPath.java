@@ -0,0 +1,202 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The reduction and the greedy phase of Ukkonen's algorithm over primitive columns, shared by the
+ * columnar finders ({@link CompactUkkonenSCSFinder}, {@link PackedNucleotideSCSFinder} and the
+ * workspaces of {@link BatchSCSSolver}). They only differ in how they store their tries; each of
+ * them computes the failure function, the depth and the supporters of its states and hands them
+ * over as int columns. See {@link UkkonenSCSFinder} for a description of the heuristic.
+ *
+ * <p>The scratch columns (candidate lists, components) are kept between runs and only grow, so a
+ * GreedyHamiltonPath can be reused for any number of problems without allocating. It is not
+ * thread-safe.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+final class GreedyHamiltonPath {
+
+  private static final int ROOT = 0;
+
+  //Per state scratch columns
+  private int[] representedKey = new int[0];
+  private int[] endingKeyCount = new int[0];
+  /**
+   * pCandidate of each state as an intrusive linked list over the key ids. Every key is in at most
+   * one candidate list at any time, so a single next column suffices.
+   */
+  private int[] candidateHead = new int[0];
+  private int[] candidateTail = new int[0];
+
+  //Per key scratch columns
+  /**
+   * representingState at position i is the state representing the end of key i if key i is part of
+   * the reduced graph, otherwise it is the root.
+   */
+  private int[] representingState = new int[0];
+  private int[] nextCandidate = new int[0];
+  private int[] firstStringInComponent = new int[0];
+  private int[] lastStringInComponent = new int[0];
+
+  /**
+   * Reduces the graph and builds the approximately longest hamilton path by traversing the states
+   * in reverse bfs order. The root has to be state 0.
+   *
+   * @param stateCount     the number of states of the trie
+   * @param bfsOrder       the states in bfs order, or null if the state ids are the bfs order
+   * @param fail           the fail state of each state
+   * @param depth          the depth of each state
+   * @param supporterStart the keys supported by state s (the keys whose path passes s, in key
+   *                       order) are supporters[supporterStart[s] .. supporterStart[s + 1])
+   * @param supporters     the supporter lists of all states
+   * @param keyEndState    the state at which each key ends (the root for empty keys)
+   * @param keyCount       the number of keys
+   * @param forbidden      receives the keys which do not start a component: those which are not
+   *                       part of the reduced graph or which follow another key; cleared first
+   * @param successor      receives the key following key i in the hamilton path (or -1)
+   * @param overlap        receives the overlap between key i and its successor
+   */
+  void build(int stateCount, int[] bfsOrder, int[] fail, int[] depth, int[] supporterStart,
+      int[] supporters, int[] keyEndState, int keyCount, BitSet forbidden, int[] successor,
+      int[] overlap) {
+    ensureCapacity(stateCount, keyCount);
+    reduceGraph(stateCount, fail, supporterStart, keyEndState, keyCount);
+
+    Arrays.fill(candidateHead, 0, stateCount, -1);
+    Arrays.fill(candidateTail, 0, stateCount, -1);
+    Arrays.fill(successor, 0, keyCount, -1);
+    forbidden.clear();
+
+    for (int i = 0; i < keyCount; i++) {
+      if (representingState[i] != ROOT) { //is string i part of reduced graph
+        appendCandidate(fail[representingState[i]], i);
+        firstStringInComponent[i] = i;
+        lastStringInComponent[i] = i;
+      } else {
+        forbidden.set(i);
+      }
+    }
+
+    for (int head = stateCount - 1; head > 0; head--) {
+      int state = bfsOrder == null ? head : bfsOrder[head];
+      if (candidateHead[state] == -1) {
+        continue;
+      }
+
+      for (int s = supporterStart[state]; s < supporterStart[state + 1]; s++) {
+        int index = supporters[s];
+        int first = candidateHead[state];
+        if (forbidden.get(index) || first == -1) {
+          continue;
+        }
+
+        int firstCandidate = first;
+        if (firstStringInComponent[firstCandidate] == index) {
+          int second = nextCandidate[first];
+          if (second == -1) {
+            continue;
+          }
+          //remove the second candidate
+          firstCandidate = second;
+          nextCandidate[first] = nextCandidate[second];
+          if (candidateTail[state] == second) {
+            candidateTail[state] = first;
+          }
+        } else {
+          //remove the first candidate
+          candidateHead[state] = nextCandidate[first];
+          if (candidateHead[state] == -1) {
+            candidateTail[state] = -1;
+          }
+        }
+
+        successor[firstCandidate] = index;
+        overlap[firstCandidate] = depth[state];
+        forbidden.set(index);
+        firstStringInComponent[lastStringInComponent[index]] =
+            firstStringInComponent[firstCandidate];
+        lastStringInComponent[firstStringInComponent[firstCandidate]] =
+            lastStringInComponent[index];
+      }
+
+      //Move the remaining candidates to the fail state
+      if (candidateHead[state] != -1) {
+        int failState = fail[state];
+        if (candidateHead[failState] == -1) {
+          candidateHead[failState] = candidateHead[state];
+        } else {
+          nextCandidate[candidateTail[failState]] = candidateHead[state];
+        }
+        candidateTail[failState] = candidateTail[state];
+      }
+    }
+  }
+
+  private void ensureCapacity(int stateCount, int keyCount) {
+    if (stateCount > candidateHead.length) {
+      int length = Math.max(stateCount, candidateHead.length + (candidateHead.length >> 1));
+      representedKey = new int[length];
+      endingKeyCount = new int[length];
+      candidateHead = new int[length];
+      candidateTail = new int[length];
+    }
+    if (keyCount > representingState.length) {
+      int length = Math.max(keyCount, representingState.length + (representingState.length >> 1));
+      representingState = new int[length];
+      nextCandidate = new int[length];
+      firstStringInComponent = new int[length];
+      lastStringInComponent = new int[length];
+    }
+  }
+
+  /**
+   * Keeps only the keys which end in a leaf and are no suffix of another key. A state has a child
+   * iff more keys pass it than end in it.
+   */
+  private void reduceGraph(int stateCount, int[] fail, int[] supporterStart, int[] keyEndState,
+      int keyCount) {
+    Arrays.fill(representedKey, 0, stateCount, -1);
+    Arrays.fill(endingKeyCount, 0, stateCount, 0);
+    for (int i = 0; i < keyCount; i++) {
+      endingKeyCount[keyEndState[i]]++;
+    }
+
+    for (int i = 0; i < keyCount; i++) {
+      int state = keyEndState[i];
+      representingState[i] = ROOT;
+      if (state != ROOT) {
+        representedKey[state] = i;
+        //remove node from graph if it is not a leaf
+        int supporterCount = supporterStart[state + 1] - supporterStart[state];
+        representingState[i] = supporterCount > endingKeyCount[state] ? ROOT : state;
+      }
+    }
+
+    // If the fail state is an end state, then the string represented by the fail state is
+    // actually a suffix of our current string and can thus be represented by it.
+    for (int state = 1; state < stateCount; state++) {
+      int representedFailIndex = representedKey[fail[state]];
+      if (representedFailIndex != -1) {
+        representingState[representedFailIndex] = ROOT;
+      }
+    }
+  }
+
+  private void appendCandidate(int state, int key) {
+    nextCandidate[key] = -1;
+    if (candidateHead[state] == -1) {
+      candidateHead[state] = key;
+    } else {
+      nextCandidate[candidateTail[state]] = key;
+    }
+    candidateTail[state] = key;
+  }
+}
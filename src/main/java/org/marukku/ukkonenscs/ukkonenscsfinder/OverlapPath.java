@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.BitSet;
+
+/**
+ * The layout of a superstring as produced by the greedy phase of Ukkonen's algorithm, in primitive
+ * arrays. It describes the superstring without materializing it:
+ *
+ * <p>order lists the ids (indices in the key list) of all keys of the reduced graph in the order
+ * they appear in the superstring. The keys are grouped into components (the paths of the hamilton
+ * path); component c is order[componentStarts[c] .. componentStarts[c + 1]) (the last component
+ * ends at the end of order). overlaps[i] is the length of the overlap between order[i] and
+ * order[i + 1], or 0 if order[i] is the last key of its component.
+ *
+ * <p>The superstring is the concatenation of all keys in order, where every key is cut by the
+ * overlap with its predecessor. Keys which are not part of the reduced graph (substrings of other
+ * keys) do not appear in order.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public final class OverlapPath {
+
+  private final int[] order;
+  private final int[] overlaps;
+  private final int[] componentStarts;
+
+  private OverlapPath(int[] order, int[] overlaps, int[] componentStarts) {
+    this.order = order;
+    this.overlaps = overlaps;
+    this.componentStarts = componentStarts;
+  }
+
+  /**
+   * Creates the path from the successor columns of a hamilton path. Every key which is not
+   * forbidden (i.e. which has no predecessor and is part of the reduced graph) starts a component;
+   * the components are ordered by their first keys.
+   *
+   * @param forbidden the keys which do not start a component
+   * @param successor successor[i] is the key following key i, or -1
+   * @param overlap   overlap[i] is the overlap between key i and its successor
+   */
+  static OverlapPath fromSuccessors(BitSet forbidden, int[] successor, int[] overlap) {
+    int keyCount = successor.length;
+    int[] firstKeys = new int[keyCount - forbidden.get(0, keyCount).cardinality()];
+    int length = 0;
+    int count = 0;
+    for (int first = forbidden.nextClearBit(0); first < keyCount;
+        first = forbidden.nextClearBit(first + 1)) {
+      firstKeys[count++] = first;
+      for (int key = first; key != -1; key = successor[key]) {
+        length++;
+      }
+    }
+
+    int[] order = new int[length];
+    int[] overlaps = new int[length];
+    int[] componentStarts = new int[firstKeys.length];
+    int position = 0;
+    for (int c = 0; c < firstKeys.length; c++) {
+      componentStarts[c] = position;
+      for (int key = firstKeys[c]; key != -1; key = successor[key]) {
+        order[position] = key;
+        overlaps[position++] = successor[key] != -1 ? overlap[key] : 0;
+      }
+    }
+    return new OverlapPath(order, overlaps, componentStarts);
+  }
+
+  /**
+   * Returns the ids of the keys in the order they appear in the superstring. The array is not
+   * copied, do not modify it.
+   *
+   * @return the key order
+   */
+  public int[] getOrder() {
+    return order;
+  }
+
+  /**
+   * Returns the overlaps between consecutive keys of getOrder (0 at the end of a component). The
+   * array is not copied, do not modify it.
+   *
+   * @return the overlaps
+   */
+  public int[] getOverlaps() {
+    return overlaps;
+  }
+
+  /**
+   * Returns the positions in getOrder at which the components start, in ascending order. The array
+   * is not copied, do not modify it.
+   *
+   * @return the component boundaries
+   */
+  public int[] getComponentStarts() {
+    return componentStarts;
+  }
+
+  /**
+   * Returns the number of components.
+   *
+   * @return the number of components
+   */
+  public int getComponentCount() {
+    return componentStarts.length;
+  }
+
+  /**
+   * Returns the position in getOrder one after the last key of component c.
+   *
+   * @param c the index of the component
+   * @return the end (exclusive) of component c
+   */
+  public int getComponentEnd(int c) {
+    return c + 1 < componentStarts.length ? componentStarts[c + 1] : order.length;
+  }
+}
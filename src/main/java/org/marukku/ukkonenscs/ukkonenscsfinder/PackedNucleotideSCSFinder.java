@@ -0,0 +1,390 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A variant of {@link CompactUkkonenSCSFinder} for DNA reads which are 2-bit packed. The reads,
+ * the trie and the superstring never exist as Strings; the trie is built directly from the packed
+ * bases and has a fixed fan-out of four.
+ *
+ * <p>Packed format: the bases A, C, G and T are encoded as 0, 1, 2 and 3. Base k of a packed
+ * sequence is stored in bits (2 * (k % 32)) and (2 * (k % 32) + 1) of word k / 32. Reads are
+ * packed back to back, read i starts right after read i - 1 (see {@link #pack}).
+ *
+ * <p>It runs exactly the same algorithm as {@link CompactUkkonenSCSFinder} and produces the same
+ * superstring.
+ *
+ * <p>Footprint: for random reads of 100 bases, building the finder allocates about 70 bytes per
+ * base in total, and its peak is below 50 bytes per base (the trie with a fan-out of four, the
+ * failure function, the supporters and the scratch columns of the greedy phase). The trie grows
+ * with its states, so reads which overlap a lot (i.e. a high coverage) need little more than the
+ * four bytes per base of the supporters. At most about 2^31 bases and 2^29 trie states are
+ * supported. Once the path is built only the per read columns are kept. {@link UkkonenSCSFinder}
+ * allocates about 800 bytes per base and keeps about 300 of them reachable, so about six times as
+ * many reads fit into the same heap.
+ *
+ * <p>Example Usage:
+ * <pre>
+ * {@code
+ *    List<String> reads = List.of("ACGT", "GTTA", "TACC");
+ *    PackedNucleotideSCSFinder finder = PackedNucleotideSCSFinder.createFromPackedReads(
+ *        PackedNucleotideSCSFinder.pack(reads), new int[]{4, 4, 4});
+ *    long[] scs = finder.getPackedSCS();
+ *    String decoded = PackedNucleotideSCSFinder.unpack(scs, finder.getSCSLength());
+ * }
+ * </pre>
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class PackedNucleotideSCSFinder {
+
+  public static final int BASES_PER_WORD = 32;
+  private static final String NUCLEOTIDES = "ACGT";
+  private static final int ROOT = 0;
+  /**
+   * The maximal length of an int array.
+   */
+  private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+  /**
+   * The maximal number of trie states, each has four cells in the child table.
+   */
+  private static final int MAX_STATES = MAX_ARRAY_LENGTH / 4;
+  /**
+   * The number of cells of a page of the child table built during insertion.
+   */
+  private static final int PAGE_SHIFT = 16;
+  private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final long[] packedBases;
+  private final int[] readLengths;
+  private final long[] readStart;
+  private final int keyCount;
+
+  //Trie, states are numbered in bfs order (children in code order)
+  private int stateCount;
+  /**
+   * The child of state s for base c is children[4 * s + c], or -1.
+   */
+  private int[] children;
+  private int[] fail;
+
+  //Per state columns
+  private int[] depth;
+  private int[] supporterStart;
+  private int[] supporters;
+
+  //Per key columns
+  private final int[] keyEndState;
+  private final BitSet forbidden;
+  private final int[] successor;
+  private final int[] overlap;
+
+  private PackedNucleotideSCSFinder(long[] packedBases, int[] readLengths) {
+    this.packedBases = packedBases;
+    this.readLengths = readLengths;
+    this.keyCount = readLengths.length;
+
+    readStart = new long[keyCount];
+    long totalBases = 0;
+    for (int i = 0; i < keyCount; i++) {
+      if (readLengths[i] < 0) {
+        throw new IllegalArgumentException("Read " + i + " has a negative length");
+      }
+      readStart[i] = totalBases;
+      totalBases += readLengths[i];
+    }
+    //Every read supports the root and each state on its path
+    if (totalBases + keyCount > MAX_ARRAY_LENGTH) {
+      throw new IllegalArgumentException("The reads have " + totalBases + " bases, but at most "
+          + (MAX_ARRAY_LENGTH - keyCount) + " are supported");
+    }
+    if (totalBases > (long) packedBases.length * BASES_PER_WORD) {
+      throw new IllegalArgumentException("The reads need " + totalBases
+          + " bases, but only " + (long) packedBases.length * BASES_PER_WORD + " are packed");
+    }
+
+    keyEndState = new int[keyCount];
+    forbidden = new BitSet(keyCount);
+    successor = new int[keyCount];
+    overlap = new int[keyCount];
+
+    buildTrie(totalBases);
+    calculateFailureFunction();
+    preprocessTrie();
+    greedilyBuildHamiltonPath();
+
+    //The superstring is described by the per key columns alone
+    children = null;
+    fail = null;
+    depth = null;
+    supporterStart = null;
+    supporters = null;
+  }
+
+  //Static Factory Methods
+
+  /**
+   * Creates a PackedNucleotideSCSFinder from 2-bit packed reads.
+   *
+   * @param packedBases the bases of all reads, packed back to back
+   * @param readLengths the number of bases of each read
+   * @return an instance of PackedNucleotideSCSFinder for our reads
+   * @throws IllegalArgumentException if packedBases holds fewer bases than the reads need, or if
+   *                                  the reads are too many bases or trie states to index
+   */
+  public static PackedNucleotideSCSFinder createFromPackedReads(long[] packedBases,
+      int[] readLengths) {
+    return new PackedNucleotideSCSFinder(packedBases, readLengths);
+  }
+
+  /**
+   * Packs the reads (Strings over "ACGT") back to back into 2-bit packed words.
+   *
+   * @param reads the reads
+   * @return the packed bases
+   * @throws IllegalArgumentException if a read contains a character other than A, C, G or T
+   */
+  public static long[] pack(List<String> reads) {
+    long totalBases = 0;
+    for (String read : reads) {
+      totalBases += read.length();
+    }
+    long[] packed = new long[(int) ((totalBases + BASES_PER_WORD - 1) / BASES_PER_WORD)];
+
+    long position = 0;
+    for (String read : reads) {
+      for (int i = 0; i < read.length(); i++) {
+        int code = NUCLEOTIDES.indexOf(read.charAt(i));
+        if (code == -1) {
+          throw new IllegalArgumentException(
+              "Character '" + read.charAt(i) + "' is not a nucleotide (A, C, G, T)");
+        }
+        packed[(int) (position >>> 5)] |= (long) code << ((position & 31) << 1);
+        position++;
+      }
+    }
+    return packed;
+  }
+
+  /**
+   * Unpacks the first length bases of a 2-bit packed sequence into a String over "ACGT".
+   *
+   * @param packed the packed bases
+   * @param length the number of bases
+   * @return the unpacked sequence
+   */
+  public static String unpack(long[] packed, long length) {
+    StringBuilder builder = new StringBuilder(Math.toIntExact(length));
+    for (long position = 0; position < length; position++) {
+      builder.append(NUCLEOTIDES.charAt(baseAt(packed, position)));
+    }
+    return builder.toString();
+  }
+
+  private static int baseAt(long[] packed, long position) {
+    return (int) (packed[(int) (position >>> 5)] >>> ((position & 31) << 1)) & 3;
+  }
+
+  private int baseOf(int key, int index) {
+    return baseAt(packedBases, readStart[key] + index);
+  }
+
+  /**
+   * Inserts all reads into a trie numbered in insertion order and renumbers it in bfs order, so
+   * that the reverse bfs order is the descending order of the state ids.
+   */
+  private void buildTrie(long totalBases) {
+    //Every base creates at most one state, but overlapping reads share most of them, so the
+    //table is allocated page by page as states are created, and never copied
+    int cellCount = 4 * (int) Math.min(totalBases + 1, MAX_STATES);
+    int[][] insertionChildren = new int[(cellCount + PAGE_SIZE - 1) >>> PAGE_SHIFT][];
+    insertionChildren[0] = newPage(0, cellCount);
+    int nodeCount = 1;
+
+    for (int i = 0; i < keyCount; i++) {
+      int state = ROOT;
+      for (int j = 0; j < readLengths[i]; j++) {
+        int cell = 4 * state + baseOf(i, j);
+        int[] page = insertionChildren[cell >>> PAGE_SHIFT];
+        if (page[cell & PAGE_MASK] == -1) {
+          if (nodeCount == MAX_STATES) {
+            throw new IllegalArgumentException(
+                "The reads need more than " + MAX_STATES + " trie states");
+          }
+          int firstCell = 4 * nodeCount;
+          if ((firstCell & PAGE_MASK) == 0) {
+            insertionChildren[firstCell >>> PAGE_SHIFT] = newPage(firstCell, cellCount);
+          }
+          page[cell & PAGE_MASK] = nodeCount++;
+        }
+        state = page[cell & PAGE_MASK];
+      }
+    }
+    stateCount = nodeCount;
+
+    int[] bfsOrder = new int[stateCount];
+    int[] newId = new int[stateCount];
+    int tail = 1;
+    for (int head = 0; head < stateCount; head++) {
+      int node = bfsOrder[head];
+      newId[node] = head;
+      for (int c = 0; c < 4; c++) {
+        int cell = 4 * node + c;
+        int child = insertionChildren[cell >>> PAGE_SHIFT][cell & PAGE_MASK];
+        if (child != -1) {
+          bfsOrder[tail++] = child;
+        }
+      }
+    }
+
+    children = new int[4 * stateCount];
+    depth = new int[stateCount];
+    for (int state = 0; state < stateCount; state++) {
+      int node = bfsOrder[state];
+      for (int c = 0; c < 4; c++) {
+        int cell = 4 * node + c;
+        int child = insertionChildren[cell >>> PAGE_SHIFT][cell & PAGE_MASK];
+        children[4 * state + c] = child == -1 ? -1 : newId[child];
+        if (child != -1) {
+          depth[newId[child]] = depth[state] + 1;
+        }
+      }
+    }
+  }
+
+  private static int[] newPage(int firstCell, int cellCount) {
+    int[] page = new int[Math.min(PAGE_SIZE, cellCount - firstCell)];
+    Arrays.fill(page, -1);
+    return page;
+  }
+
+  /**
+   * Calculates the failure function in a single pass, since fail states are shallower and thus
+   * have smaller ids.
+   */
+  private void calculateFailureFunction() {
+    fail = new int[stateCount];
+    for (int parent = 0; parent < stateCount; parent++) {
+      for (int c = 0; c < 4; c++) {
+        int child = children[4 * parent + c];
+        if (child == -1) {
+          continue;
+        }
+
+        int failState = ROOT;
+        if (parent != ROOT) {
+          int candidate = fail[parent];
+          //Terminates because we stop at the root
+          while (candidate != ROOT && children[4 * candidate + c] == -1) {
+            candidate = fail[candidate];
+          }
+          int target = children[4 * candidate + c];
+          failState = target == -1 ? ROOT : target;
+        }
+        fail[child] = failState;
+      }
+    }
+  }
+
+  /**
+   * Calculates the supporters of each state.
+   */
+  private void preprocessTrie() {
+    supporterStart = new int[stateCount + 1];
+    for (int i = 0; i < keyCount; i++) {
+      int state = ROOT;
+      supporterStart[ROOT + 1]++;
+      for (int j = 0; j < readLengths[i]; j++) {
+        state = children[4 * state + baseOf(i, j)];
+        supporterStart[state + 1]++;
+      }
+    }
+    for (int state = 0; state < stateCount; state++) {
+      supporterStart[state + 1] += supporterStart[state];
+    }
+
+    int[] fill = new int[stateCount];
+    supporters = new int[supporterStart[stateCount]];
+    for (int i = 0; i < keyCount; i++) {
+      int state = ROOT;
+      supporters[supporterStart[ROOT] + fill[ROOT]++] = i;
+      for (int j = 0; j < readLengths[i]; j++) {
+        state = children[4 * state + baseOf(i, j)];
+        supporters[supporterStart[state] + fill[state]++] = i;
+      }
+      keyEndState[i] = state;
+    }
+  }
+
+  /**
+   * Reduces the graph and builds the approximately longest hamilton path, see {@link
+   * GreedyHamiltonPath}. The states are numbered in bfs order.
+   */
+  private void greedilyBuildHamiltonPath() {
+    new GreedyHamiltonPath().build(stateCount, null, fail, depth, supporterStart, supporters,
+        keyEndState, keyCount, forbidden, successor, overlap);
+  }
+
+  /**
+   * Returns the hamilton path built by the greedy phase as an {@link OverlapPath} whose key ids are
+   * the indices of the reads. The components are ordered like in getPackedSCS.
+   *
+   * @return the overlap path of the superstring
+   */
+  public OverlapPath getOverlapPath() {
+    return OverlapPath.fromSuccessors(forbidden, successor, overlap);
+  }
+
+  /**
+   * Returns the number of bases of the superstring.
+   *
+   * @return the length of the superstring
+   */
+  public long getSCSLength() {
+    long length = 0;
+    for (int start = forbidden.nextClearBit(0); start < keyCount;
+        start = forbidden.nextClearBit(start + 1)) {
+      length += readLengths[start];
+      for (int key = start; successor[key] != -1; key = successor[key]) {
+        length += readLengths[successor[key]] - overlap[key];
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Returns the superstring generated by the algorithm, 2-bit packed like the reads. Its length is
+   * returned by getSCSLength.
+   *
+   * @return the packed approximate shortest common superstring
+   */
+  public long[] getPackedSCS() {
+    long[] packed = new long[(int) ((getSCSLength() + BASES_PER_WORD - 1) / BASES_PER_WORD)];
+    long position = 0;
+    for (int start = forbidden.nextClearBit(0); start < keyCount;
+        start = forbidden.nextClearBit(start + 1)) {
+      position = appendBases(packed, position, start, 0);
+      for (int key = start; successor[key] != -1; key = successor[key]) {
+        position = appendBases(packed, position, successor[key], overlap[key]);
+      }
+    }
+    return packed;
+  }
+
+  private long appendBases(long[] packed, long position, int key, int from) {
+    for (int j = from; j < readLengths[key]; j++) {
+      packed[(int) (position >>> 5)] |= (long) baseOf(key, j) << ((position & 31) << 1);
+      position++;
+    }
+    return position;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event covering a run of Ukkonen's algorithm by an {@link UkkonenSCSFinder}:
+ * building the trie, preprocessing it and selecting the greedy overlaps. The trie construction is
+ * recorded as a nested {@code org.marukku.ukkonenscs.TrieConstruction} event.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@Name("org.marukku.ukkonenscs.SCSRun")
+@Label("SCS Run")
+@Description("A run of Ukkonen's greedy shortest common superstring algorithm")
+@Category({"Ukkonen SCS", "Shortest Common Superstring"})
+@StackTrace(false)
+final class SCSRunEvent extends Event {
+
+  @Label("Keyword Count")
+  int keywordCount;
+
+  @Label("Node Count")
+  int nodeCount;
+
+  @Label("Component Count")
+  @Description("The number of paths the greedy heuristic could not connect")
+  int componentCount;
+}
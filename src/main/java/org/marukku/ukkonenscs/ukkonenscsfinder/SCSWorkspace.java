@@ -0,0 +1,323 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Solves one SCS problem after another with the same storage. It runs exactly the algorithm of
+ * {@link CompactUkkonenSCSFinder} and produces the same superstring as {@link
+ * UkkonenSCSFinder#createFromKeys}, but the trie, the per-state and per-key columns and the output
+ * buffer are arrays owned by the workspace, which only grow when a problem is larger than every
+ * problem before. Once the workspace is warm, solving a problem allocates nothing.
+ *
+ * <p>The trie is kept in insertion order; the states are traversed in bfs order (children sorted
+ * by their codes) through a separate order column. Codes are assigned in the order in which the
+ * characters first occur in the keys, like {@link
+ * org.marukku.ukkonenscs.alphabet.LanguageParameterFactory#createLanguageParametersFromKeys} does,
+ * so that the traversal order (and hence the greedy choices) equal those of the other finders.
+ *
+ * <p>A workspace is not thread-safe; {@link BatchSCSSolver} gives every worker its own.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+final class SCSWorkspace {
+
+  private static final int ROOT = 0;
+  private static final int INITIAL_CAPACITY = 64;
+
+  //Alphabet: code of every char (or -1) and the chars coded so far, to reset the codes
+  private final int[] codeOf = new int[Character.MAX_VALUE + 1];
+  private char[] codedChars = new char[INITIAL_CAPACITY];
+
+  //Goto function: open addressing table from (parent, code) to child
+  private long[] edgeKeys = new long[2 * INITIAL_CAPACITY];
+  private int[] edgeChildren = new int[2 * INITIAL_CAPACITY];
+
+  //Per state columns, indexed by insertion order
+  private int[] parent = new int[INITIAL_CAPACITY];
+  private int[] code = new int[INITIAL_CAPACITY];
+  private int[] fail = new int[INITIAL_CAPACITY];
+  private int[] depth = new int[INITIAL_CAPACITY];
+  private int[] childStart = new int[INITIAL_CAPACITY + 1];
+  private int[] children = new int[INITIAL_CAPACITY];
+  private int[] bfsOrder = new int[INITIAL_CAPACITY];
+  private int[] supporterStart = new int[INITIAL_CAPACITY + 1];
+  private int[] fill = new int[INITIAL_CAPACITY];
+  private int[] supporters = new int[INITIAL_CAPACITY];
+
+  //Per key columns
+  private int[] keyEndState = new int[INITIAL_CAPACITY];
+  private final BitSet forbidden = new BitSet();
+  private int[] successor = new int[INITIAL_CAPACITY];
+  private int[] overlap = new int[INITIAL_CAPACITY];
+
+  private final GreedyHamiltonPath greedyPhase = new GreedyHamiltonPath();
+  private final StringBuilder superstring = new StringBuilder();
+
+  private List<String> keyWords;
+  private int stateCount;
+  private int codedCharCount;
+  private int edgeMask;
+
+  SCSWorkspace() {
+    Arrays.fill(codeOf, -1);
+  }
+
+  /**
+   * Computes the SCS of keyWords. The returned sequence is a buffer of the workspace: it is
+   * overwritten by the next call, copy it (i.e. toString) to keep it.
+   *
+   * @param keyWords the keys for which we want to generate an SCS
+   * @return the approximate shortest common superstring, valid until the next call
+   */
+  CharSequence solve(List<String> keyWords) {
+    this.keyWords = keyWords;
+    try {
+      ensureCapacity();
+      buildTrie();
+      calculateFailureFunction();
+      preprocessTrie();
+      greedilyBuildHamiltonPath();
+      writeSuperstring();
+    } finally {
+      for (int i = 0; i < codedCharCount; i++) {
+        codeOf[codedChars[i]] = -1;
+      }
+      codedCharCount = 0;
+      this.keyWords = null;
+    }
+    return superstring;
+  }
+
+  /**
+   * Grows the columns to the size of the problem: a trie has at most one state per character of
+   * the keys plus the root.
+   */
+  private void ensureCapacity() {
+    int keyCount = keyWords.size();
+    long charCount = 0;
+    for (int i = 0; i < keyCount; i++) {
+      charCount += keyWords.get(i).length();
+    }
+    int maxStates = Math.toIntExact(charCount + 1);
+
+    if (maxStates > parent.length) {
+      int length = Math.max(maxStates, parent.length + (parent.length >> 1));
+      parent = new int[length];
+      code = new int[length];
+      fail = new int[length];
+      depth = new int[length];
+      childStart = new int[length + 1];
+      children = new int[length];
+      bfsOrder = new int[length];
+      supporterStart = new int[length + 1];
+      fill = new int[length];
+      codedChars = new char[length];
+    }
+    if (maxStates + keyCount > supporters.length) {
+      supporters = new int[Math.max(maxStates + keyCount,
+          supporters.length + (supporters.length >> 1))];
+    }
+    if (keyCount > keyEndState.length) {
+      int length = Math.max(keyCount, keyEndState.length + (keyEndState.length >> 1));
+      keyEndState = new int[length];
+      successor = new int[length];
+      overlap = new int[length];
+    }
+
+    //Keep the goto table at most half full
+    int tableSize = Integer.highestOneBit(Math.max(1, 2 * maxStates - 1)) << 1;
+    if (tableSize > edgeKeys.length) {
+      edgeKeys = new long[tableSize];
+      edgeChildren = new int[tableSize];
+    }
+    edgeMask = tableSize - 1;
+    Arrays.fill(edgeKeys, 0, tableSize, -1);
+  }
+
+  private int slot(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & edgeMask;
+  }
+
+  private int getChild(int state, int childCode) {
+    long key = ((long) state << 32) | childCode;
+    for (int i = slot(key); ; i = (i + 1) & edgeMask) {
+      if (edgeKeys[i] == key) {
+        return edgeChildren[i];
+      }
+      if (edgeKeys[i] == -1) {
+        return -1;
+      }
+    }
+  }
+
+  private void putChild(int state, int childCode, int child) {
+    long key = ((long) state << 32) | childCode;
+    int i = slot(key);
+    while (edgeKeys[i] != -1) {
+      i = (i + 1) & edgeMask;
+    }
+    edgeKeys[i] = key;
+    edgeChildren[i] = child;
+  }
+
+  private int mapChar(char c) {
+    int charCode = codeOf[c];
+    if (charCode == -1) {
+      charCode = codedCharCount;
+      codeOf[c] = charCode;
+      codedChars[codedCharCount++] = c;
+    }
+    return charCode;
+  }
+
+  /**
+   * Inserts the keys, calculating the depth of each state and counting its supporters on the way.
+   */
+  private void buildTrie() {
+    stateCount = 1;
+    depth[ROOT] = 0;
+    supporterStart[ROOT] = 0;
+    supporterStart[ROOT + 1] = 0;
+
+    for (int i = 0; i < keyWords.size(); i++) {
+      String key = keyWords.get(i);
+      int state = ROOT;
+      supporterStart[ROOT + 1]++;
+
+      for (int j = 0; j < key.length(); j++) {
+        int childCode = mapChar(key.charAt(j));
+        int child = getChild(state, childCode);
+        if (child == -1) {
+          child = stateCount++;
+          parent[child] = state;
+          code[child] = childCode;
+          depth[child] = j + 1;
+          supporterStart[child + 1] = 0;
+          putChild(state, childCode, child);
+        }
+        state = child;
+        supporterStart[state + 1]++;
+      }
+    }
+  }
+
+  /**
+   * Orders the states breadth-first, the children of each state sorted by their codes, and
+   * calculates the failure function on the way (fail states are always shallower).
+   */
+  private void calculateFailureFunction() {
+    //Bucket the children by parent (in insertion order), then sort each bucket by code
+    Arrays.fill(childStart, 0, stateCount + 1, 0);
+    for (int child = 1; child < stateCount; child++) {
+      childStart[parent[child] + 1]++;
+    }
+    for (int state = 0; state < stateCount; state++) {
+      childStart[state + 1] += childStart[state];
+      fill[state] = childStart[state];
+    }
+    for (int child = 1; child < stateCount; child++) {
+      children[fill[parent[child]]++] = child;
+    }
+    for (int state = 0; state < stateCount; state++) {
+      sortByCode(childStart[state], childStart[state + 1]);
+    }
+
+    fail[ROOT] = ROOT;
+    bfsOrder[0] = ROOT;
+    int tail = 1;
+    for (int head = 0; head < stateCount; head++) {
+      int state = bfsOrder[head];
+      for (int c = childStart[state]; c < childStart[state + 1]; c++) {
+        int child = children[c];
+        bfsOrder[tail++] = child;
+
+        int failState = ROOT;
+        if (state != ROOT) {
+          int candidate = fail[state];
+          //Terminates because we stop at the root
+          while (candidate != ROOT && getChild(candidate, code[child]) == -1) {
+            candidate = fail[candidate];
+          }
+          int target = getChild(candidate, code[child]);
+          failState = target == -1 ? ROOT : target;
+        }
+        fail[child] = failState;
+      }
+    }
+  }
+
+  /**
+   * Insertion sort of children[from .. to) by code; the fan-out of small problems is small.
+   */
+  private void sortByCode(int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      int child = children[i];
+      int j = i - 1;
+      while (j >= from && code[children[j]] > code[child]) {
+        children[j + 1] = children[j];
+        j--;
+      }
+      children[j + 1] = child;
+    }
+  }
+
+  /**
+   * Fills the supporters in key order.
+   */
+  private void preprocessTrie() {
+    for (int state = 0; state < stateCount; state++) {
+      supporterStart[state + 1] += supporterStart[state];
+      fill[state] = 0;
+    }
+
+    for (int i = 0; i < keyWords.size(); i++) {
+      String key = keyWords.get(i);
+      int state = ROOT;
+      supporters[supporterStart[ROOT] + fill[ROOT]++] = i;
+
+      for (int j = 0; j < key.length(); j++) {
+        state = getChild(state, codeOf[key.charAt(j)]);
+        supporters[supporterStart[state] + fill[state]++] = i;
+      }
+      keyEndState[i] = state;
+    }
+  }
+
+  /**
+   * Reduces the graph and builds the approximately longest hamilton path, see {@link
+   * GreedyHamiltonPath}. The states are numbered in insertion order, so the phase traverses them
+   * through the bfs order column.
+   */
+  private void greedilyBuildHamiltonPath() {
+    greedyPhase.build(stateCount, bfsOrder, fail, depth, supporterStart, supporters, keyEndState,
+        keyWords.size(), forbidden, successor, overlap);
+  }
+
+  /**
+   * Writes the components of the hamilton path ordered by their first keys, every key cut by the
+   * overlap with its predecessor (see {@link OverlapPath}).
+   */
+  private void writeSuperstring() {
+    superstring.setLength(0);
+    for (int first = 0; first < keyWords.size(); first++) {
+      if (forbidden.get(first)) {
+        continue;
+      }
+      int cut = 0;
+      for (int key = first; key != -1; key = successor[key]) {
+        String keyWord = keyWords.get(key);
+        superstring.append(keyWord, cut, keyWord.length());
+        cut = overlap[key];
+      }
+    }
+  }
+}
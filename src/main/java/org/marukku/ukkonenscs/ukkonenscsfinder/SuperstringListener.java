@@ -0,0 +1,26 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+/**
+ * Receives the superstrings computed by a {@link BatchSCSSolver}. It is called concurrently by all
+ * workers of the solver, in no particular order, so implementations need to be thread-safe.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+@FunctionalInterface
+public interface SuperstringListener {
+
+  /**
+   * Called for every solved problem. superstring is a buffer of the worker which is reused for its
+   * next problem: it is only valid during the call, copy it (i.e. toString) to keep it.
+   *
+   * @param problemIndex the position of the key set in the stream of problems
+   * @param superstring  the approximate shortest common superstring of the key set
+   */
+  void onSuperstring(long problemIndex, CharSequence superstring);
+}
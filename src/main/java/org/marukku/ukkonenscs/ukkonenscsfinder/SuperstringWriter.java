@@ -0,0 +1,130 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.List;
+
+/**
+ * Writes the superstring described by an {@link OverlapPath} to a sink by walking its keys. Only
+ * the (uncopied) suffixes of the keys are written, so no intermediate Strings are created and the
+ * superstring never needs to exist in memory as a whole.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+final class SuperstringWriter {
+
+  private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+  private final List<String> keyWords;
+  private final OverlapPath path;
+
+  SuperstringWriter(List<String> keyWords, OverlapPath path) {
+    this.keyWords = keyWords;
+    this.path = path;
+  }
+
+  /**
+   * Returns the length of the superstring.
+   */
+  long length() {
+    int[] order = path.getOrder();
+    int[] overlaps = path.getOverlaps();
+    long length = 0;
+    for (int i = 0; i < order.length; i++) {
+      length += keyWords.get(order[i]).length() - overlaps[i];
+    }
+    return length;
+  }
+
+  /**
+   * Returns the superstring as a String, built in a single buffer of the right size.
+   */
+  String asString() {
+    StringBuilder builder = new StringBuilder(Math.toIntExact(length()));
+    try {
+      writeTo(builder);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); //StringBuilders never throw
+    }
+    return builder.toString();
+  }
+
+  void writeTo(Appendable out) throws IOException {
+    int[] order = path.getOrder();
+    for (int i = 0; i < order.length; i++) {
+      append(out, keyWords.get(order[i]), cutOf(i));
+    }
+  }
+
+  /**
+   * Returns the number of leading chars of order[i] which are already written as part of its
+   * predecessor.
+   */
+  private int cutOf(int i) {
+    return i > 0 ? path.getOverlaps()[i - 1] : 0;
+  }
+
+  private static void append(Appendable out, String key, int from) throws IOException {
+    if (out instanceof Writer) {
+      //Writer.append(CharSequence, int, int) would copy the suffix into a new String
+      ((Writer) out).write(key, from, key.length() - from);
+    } else {
+      out.append(key, from, key.length());
+    }
+  }
+
+  void writeTo(WritableByteChannel channel, Charset charset) throws IOException {
+    CharsetEncoder encoder = charset.newEncoder();
+    ByteBuffer bytes = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    int[] order = path.getOrder();
+    for (int i = 0; i < order.length; i++) {
+      String key = keyWords.get(order[i]);
+      encode(channel, encoder, bytes, CharBuffer.wrap(key, cutOf(i), key.length()));
+    }
+
+    CoderResult result;
+    do {
+      result = encoder.encode(CharBuffer.allocate(0), bytes, true);
+      drain(channel, bytes);
+    } while (result.isOverflow());
+    do {
+      result = encoder.flush(bytes);
+      drain(channel, bytes);
+    } while (result.isOverflow());
+  }
+
+  private static void encode(WritableByteChannel channel, CharsetEncoder encoder,
+      ByteBuffer bytes, CharBuffer chars) throws IOException {
+    while (true) {
+      CoderResult result = encoder.encode(chars, bytes, false);
+      if (result.isError()) {
+        result.throwException();
+      }
+      if (!result.isOverflow()) {
+        return;
+      }
+      drain(channel, bytes);
+    }
+  }
+
+  private static void drain(WritableByteChannel channel, ByteBuffer bytes) throws IOException {
+    bytes.flip();
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    bytes.clear();
+  }
+}
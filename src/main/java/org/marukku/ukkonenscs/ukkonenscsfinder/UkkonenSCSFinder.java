@@ -8,16 +8,26 @@ package org.marukku.ukkonenscs.ukkonenscsfinder;
 
 import org.marukku.ukkonenscs.actrie.AhoCorasickTrie;
 import org.marukku.ukkonenscs.actrie.AhoCorasickTrieFactory;
+import org.marukku.ukkonenscs.actrie.DFAMode;
 import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
 import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import org.marukku.ukkonenscs.metrics.BuildListener;
+import org.marukku.ukkonenscs.metrics.BuildPhase;
+import org.marukku.ukkonenscs.metrics.BuildSize;
+import org.marukku.ukkonenscs.metrics.PhaseTimer;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
 import org.marukku.ukkonenscs.trienodes.UkkonenTrieNode;
 import org.marukku.ukkonenscs.trienodes.UkkonenTrieNodeFactory;
 
@@ -37,9 +47,9 @@ import org.marukku.ukkonenscs.trienodes.UkkonenTrieNodeFactory;
  * }
  * </pre>
  * <p>Some Notes on the Implementation and the Algorithm:
- * <br>Our AhoCorasick algorithm uses arrays to define the goto function. That means that our
- * algorithm scales badly in terms of space for large alphabets. (One can try to change ACTrieNode
- * to use Maps with defaults instead.)
+ * <br>By default our AhoCorasick algorithm uses arrays to define the goto function. That means
+ * that our algorithm scales badly in terms of space for large alphabets. For large alphabets, use
+ * {@link TransitionStrategy#ADAPTIVE} nodes, whose memory grows with the number of edges.
  *
  * <p>The algorithm is described in detail here: https://link.springer.com/article/10.1007/BF01840391.
  *
@@ -67,12 +77,17 @@ public class UkkonenSCSFinder {
 
   //Keep track of Hamilton Path Building
   /**
-   * forbidden is false at index i, if our current hamiltonPath does not yet contain any overlap
-   * ending at the node representing key i, otherwise it is true. (It is also true, if the string is
+   * forbidden is clear at index i, if our current hamilton path does not yet contain any overlap
+   * ending at the node representing key i, otherwise it is set. (It is also set, if the string is
    * not part of the reduced graph.)
    */
-  private List<Boolean> forbidden;
-  private List<Edge<Integer, Integer>> hamiltonPath;
+  private final BitSet forbidden;
+  /**
+   * The hamilton path in primitive columns: successor at position i is the key following key i in
+   * the path (or -1), overlap at position i the length of the overlap between both keys.
+   */
+  private final int[] successor;
+  private final int[] overlap;
   /**
    * firstStringInComponent at position i is j, iff the directed path component containing i starts
    * with j.
@@ -84,34 +99,93 @@ public class UkkonenSCSFinder {
    */
   private List<Integer> lastStringInComponent;
 
-  private UkkonenSCSFinder(List<String> keyWords, LanguageParameter params) {
+  /**
+   * Receives the duration and sizes of the phases (null if they are not measured).
+   */
+  private final BuildListener listener;
+
+  private UkkonenSCSFinder(List<String> keyWords, LanguageParameter params,
+      TransitionStrategy strategy) {
+    this(keyWords, params, strategy, true);
+  }
+
+  /**
+   * Creates the finder, but only runs preprocessTrie and greedilyBuildHamiltonPath if runPhases is
+   * true. This allows running (and measuring) the phases one by one.
+   */
+  UkkonenSCSFinder(List<String> keyWords, LanguageParameter params, TransitionStrategy strategy,
+      boolean runPhases) {
+    this(keyWords, params, strategy, runPhases, null);
+  }
+
+  private UkkonenSCSFinder(List<String> keyWords, LanguageParameter params,
+      TransitionStrategy strategy, boolean runPhases, BuildListener listener) {
     this.keyWords = keyWords;
+    this.listener = listener;
+    SCSRunEvent event = new SCSRunEvent();
+    event.begin();
 
-    //Inject the UkkonenTrieNodeFactory instead of the ACTrieNodeFactory
+    //Inject the UkkonenTrieNodeFactory instead of the ACTrieNodeFactory. We only use the goto
+    //and failure functions, so the DFA is never built.
     AhoCorasickTrie<UkkonenTrieNode> newTrie =
         AhoCorasickTrieFactory
             .createAhoCorasickTrieFromParamsWithNodeFactory(
-                keyWords, params, new UkkonenTrieNodeFactory());
+                keyWords, params, new UkkonenTrieNodeFactory(strategy), DFAMode.LAZY, listener);
 
     allNodes = newTrie.trieNodes;
     rootNode = newTrie.rootNode;
 
-    hamiltonPath = new ArrayList<>();
+    successor = new int[keyWords.size()];
+    overlap = new int[keyWords.size()];
+    Arrays.fill(successor, -1);
     stringIndexToRepresentingNode = new ArrayList<>(keyWords.size());
-    forbidden = new ArrayList<>(keyWords.size());
+    forbidden = new BitSet(keyWords.size());
     firstStringInComponent = new ArrayList<>(keyWords.size());
     lastStringInComponent = new ArrayList<>(keyWords.size());
 
     for (int i = 0; i < keyWords.size(); i++) {
       stringIndexToRepresentingNode.add(rootNode);
-      forbidden.add(false);
       firstStringInComponent.add(-1);
       lastStringInComponent.add(-1);
     }
     representingNodeToStringIndex = new HashMap<>();
 
-    preprocessTrie();
-    greedilyBuildHamiltonPath();
+    if (runPhases) {
+      PhaseTimer timer = PhaseTimer.start(listener, BuildPhase.PREPROCESS_TRIE);
+      preprocessTrie();
+      timer.stop();
+      timer = PhaseTimer.start(listener, BuildPhase.HAMILTON_PATH);
+      greedilyBuildHamiltonPath();
+      timer.stop();
+      if (listener != null) {
+        reportPathSizes();
+      }
+
+      event.end();
+      if (event.shouldCommit()) {
+        event.keywordCount = keyWords.size();
+        event.nodeCount = allNodes.size();
+        event.componentCount = getOverlapPath().getComponentCount();
+        event.commit();
+      }
+    }
+  }
+
+  private void reportPathSizes() {
+    int reducedKeyCount = 0;
+    int edgeCount = 0;
+    for (int i = 0; i < keyWords.size(); i++) {
+      if (stringIndexToRepresentingNode.get(i) != rootNode) {
+        reducedKeyCount++;
+      }
+      if (successor[i] != -1) {
+        edgeCount++;
+      }
+    }
+    listener.onSize(BuildSize.KEY_COUNT, keyWords.size());
+    listener.onSize(BuildSize.REDUCED_KEY_COUNT, reducedKeyCount);
+    listener.onSize(BuildSize.GREEDY_EDGE_COUNT, edgeCount);
+    listener.onSize(BuildSize.COMPONENT_COUNT, getOverlapPath().getComponentCount());
   }
 
   //Static Factory Methods
@@ -126,7 +200,8 @@ public class UkkonenSCSFinder {
    */
   public static UkkonenSCSFinder createFromKeys(List<String> keyWords) {
     return new UkkonenSCSFinder(keyWords,
-        LanguageParameterFactory.createLanguageParametersFromKeys(keyWords));
+        LanguageParameterFactory.createLanguageParametersFromKeys(keyWords),
+        TransitionStrategy.DENSE);
   }
 
   /**
@@ -138,7 +213,38 @@ public class UkkonenSCSFinder {
    * @return an instance of UkkonenSCSFinder for our parameters
    */
   public static UkkonenSCSFinder createFromParams(List<String> keyWords, LanguageParameter params) {
-    return new UkkonenSCSFinder(keyWords, params);
+    return new UkkonenSCSFinder(keyWords, params, TransitionStrategy.DENSE);
+  }
+
+  /**
+   * Creates an UkkonenSCSFinder whose trie nodes store their transitions using strategy. Use
+   * {@link TransitionStrategy#ADAPTIVE} for large alphabets.
+   *
+   * @param keyWords a list of strings for which we want to generate an SCS
+   * @param params   language parameters that define the language of the words used in keyWords
+   * @param strategy the {@link TransitionStrategy} of the trie nodes
+   * @return an instance of UkkonenSCSFinder for our parameters
+   */
+  public static UkkonenSCSFinder createFromParams(List<String> keyWords, LanguageParameter params,
+      TransitionStrategy strategy) {
+    return new UkkonenSCSFinder(keyWords, params, strategy);
+  }
+
+  /**
+   * Creates an UkkonenSCSFinder like createFromParams and reports the duration, allocation and
+   * sizes of all phases to listener: those of the trie while it is built, those of the greedy
+   * heuristic when this method returns, and the superstring whenever it is written.
+   *
+   * @param keyWords a list of strings for which we want to generate an SCS
+   * @param params   language parameters that define the language of the words used in keyWords
+   * @param strategy the {@link TransitionStrategy} of the trie nodes
+   * @param listener the {@link BuildListener} receiving the measurements, i.e. {@link
+   *                 org.marukku.ukkonenscs.metrics.BuildMetrics}
+   * @return an instance of UkkonenSCSFinder for our parameters
+   */
+  public static UkkonenSCSFinder createFromParams(List<String> keyWords, LanguageParameter params,
+      TransitionStrategy strategy, BuildListener listener) {
+    return new UkkonenSCSFinder(keyWords, params, strategy, true, listener);
   }
 
   //Augment AC Machine and find Trie
@@ -154,7 +260,7 @@ public class UkkonenSCSFinder {
    * each node its successor; <br>it stores the starting points of the failure paths (all string
    * ends in the reduced graph)
    */
-  private void preprocessTrie() {
+  void preprocessTrie() {
     // Reduces Graph, Calculates depth + supporters
     // stringIndexToStartOfFailurePath is extremely important -- it represents our reduced graph,
     // since we will only process those strings where this value is not the root
@@ -229,7 +335,7 @@ public class UkkonenSCSFinder {
    * we have to know which of the failure paths pass through that state. Each passing path
    * represents an overlap. Choose any overlap that is not forbidden by earlier selections.
    */
-  private void greedilyBuildHamiltonPath() {
+  void greedilyBuildHamiltonPath() {
     for (int i = 0; i < keyWords.size(); i++) {
       if (stringIndexToRepresentingNode.get(i) != rootNode) { //is string i part of reduced graph
         // We have not yet selected anything and the fail node is clearly on the failure path
@@ -238,7 +344,7 @@ public class UkkonenSCSFinder {
         firstStringInComponent.set(i, i);
         lastStringInComponent.set(i, i);
       } else {
-        forbidden.set(i, true);
+        forbidden.set(i);
       }
     }
 
@@ -265,8 +371,9 @@ public class UkkonenSCSFinder {
             currentState.pCandidate.remove(0);
           }
 
-          hamiltonPath.add(new Edge<>(firstCandidate, index, currentState.depth));
-          forbidden.set(index, true);
+          successor[firstCandidate] = index;
+          overlap[firstCandidate] = currentState.depth;
+          forbidden.set(index);
           firstStringInComponent
               .set(lastStringInComponent.get(index), firstStringInComponent.get(firstCandidate));
           lastStringInComponent
@@ -285,52 +392,68 @@ public class UkkonenSCSFinder {
    * @return the approximate shortest common superstring generated by the algorithm
    */
   public String getSCS() {
-    List<Integer> graphComponents = new ArrayList<>();
-    for (int i = 0; i < forbidden.size(); i++) {
-      if (!forbidden.get(i)) {
-        graphComponents.add(i);
-      }
-    }
+    PhaseTimer timer = PhaseTimer.start(listener, BuildPhase.SUPERSTRING);
+    SuperstringWriter writer = createSuperstringWriter();
+    String scs = writer.asString();
+    timer.stop();
+    reportSuperstringSizes(writer);
+    return scs;
+  }
 
-    Map<Integer, Edge<Integer, Integer>> allEdges = hamiltonPath.stream().collect(
-        Collectors.toMap(edge -> edge.fst, edge -> edge));
+  /**
+   * Writes the SCS generated by Ukkonens algorithm to out, component by component, without
+   * creating intermediate Strings. Use this for superstrings too large to be held in memory.
+   *
+   * @param out the {@link Appendable} (i.e. a {@link java.io.Writer}) receiving the superstring
+   * @throws IOException if out throws
+   */
+  public void writeSCS(Appendable out) throws IOException {
+    PhaseTimer timer = PhaseTimer.start(listener, BuildPhase.SUPERSTRING);
+    SuperstringWriter writer = createSuperstringWriter();
+    writer.writeTo(out);
+    timer.stop();
+    reportSuperstringSizes(writer);
+  }
 
-    //Generate total path
-    List<String> graphComponentStrings = new ArrayList<>();
+  /**
+   * Writes the SCS generated by Ukkonens algorithm to channel, encoded using charset, without
+   * creating intermediate Strings.
+   *
+   * @param channel the {@link WritableByteChannel} receiving the superstring
+   * @param charset the {@link Charset} used to encode the superstring
+   * @throws IOException if writing to the channel fails
+   */
+  public void writeSCS(WritableByteChannel channel, Charset charset) throws IOException {
+    PhaseTimer timer = PhaseTimer.start(listener, BuildPhase.SUPERSTRING);
+    SuperstringWriter writer = createSuperstringWriter();
+    writer.writeTo(channel, charset);
+    timer.stop();
+    reportSuperstringSizes(writer);
+  }
 
-    for (int startEdge : graphComponents) {
-      if (allEdges.containsKey(startEdge)) {
-        graphComponentStrings.add(componentToString(allEdges, startEdge));
-      } else { //Singular Node
-        graphComponentStrings.add(keyWords.get(startEdge));
+  private void reportSuperstringSizes(SuperstringWriter writer) {
+    if (listener != null) {
+      long inputLength = 0;
+      for (String keyWord : keyWords) {
+        inputLength += keyWord.length();
       }
+      listener.onSize(BuildSize.INPUT_LENGTH, inputLength);
+      listener.onSize(BuildSize.SUPERSTRING_LENGTH, writer.length());
     }
-
-    return String.join("", graphComponentStrings);
   }
 
-
   /**
-   * componentToString is a helper function that generates the substring represented by a component
-   * of the Hamilton Path. This component is uniquely identified by startNode.
+   * Returns the hamilton path built by the greedy phase as an {@link OverlapPath}: the order of the
+   * keys in the superstring, the overlaps between consecutive keys and the component boundaries.
+   * The components are ordered by their first keys, exactly like in getSCS.
+   *
+   * @return the overlap path of the superstring
    */
-  private String componentToString(Map<Integer, Edge<Integer, Integer>> allEdges,
-      Integer startNode) {
-    StringBuilder builder = new StringBuilder();
-    Edge<Integer, Integer> currentEdge = allEdges.get(startNode);
-    builder.append(keyWords.get(currentEdge.fst));
-
-    int nextNode = startNode;
-    while (true) {
-      currentEdge = allEdges.get(nextNode);
-
-      if (currentEdge == null) {
-        break;
-      }
-      builder.append(keyWords.get(currentEdge.snd).substring(currentEdge.weight));
-      allEdges.remove(nextNode);
-      nextNode = currentEdge.snd;
-    }
-    return builder.toString();
+  public OverlapPath getOverlapPath() {
+    return OverlapPath.fromSuccessors(forbidden, successor, overlap);
+  }
+
+  private SuperstringWriter createSuperstringWriter() {
+    return new SuperstringWriter(keyWords, getOverlapPath());
   }
 }
@@ -6,15 +6,22 @@
 package org.marukku.ukkonenscs.actrie;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
 import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.marukku.ukkonenscs.trienodes.ACTrieNode;
+import org.marukku.ukkonenscs.trienodes.ACTrieNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+import org.marukku.ukkonenscs.ukkonenscsfinder.RandomStringGenerator;
 
 /**
  * Tests AhoCorasickTrie for correctness.
@@ -126,4 +133,212 @@ public class AhoCorasickTrieTester {
     assertEquals(new HashSet<>(potatState.getAllPossibleDFATransitions()),
         new HashSet<>(List.of(tattState, thState, taState, potatoState, root, pState)));
   }
+
+  @Test
+  public void lazy_dfa_equals_eager_dfa() {
+    for (TransitionStrategy strategy : TransitionStrategy.values()) {
+      //ARRANGE
+      AhoCorasickTrie<ACTrieNode> eagerTrie =
+          AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(defaultData,
+              LanguageParameterFactory.defaultParameter, new ACTrieNodeFactory(strategy),
+              DFAMode.EAGER);
+      AhoCorasickTrie<ACTrieNode> lazyTrie =
+          AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(defaultData,
+              LanguageParameterFactory.defaultParameter, new ACTrieNodeFactory(strategy),
+              DFAMode.LAZY);
+
+      //ACT + ASSERT (node ids are assigned in the same order in both tries)
+      for (int i = 0; i < eagerTrie.trieNodes.size(); i++) {
+        List<Integer> eagerTransitions = eagerTrie.trieNodes.get(i).getAllPossibleDFATransitions()
+                                             .stream().map(node -> node.id)
+                                             .collect(Collectors.toList());
+        List<Integer> lazyTransitions = lazyTrie.trieNodes.get(i).getAllPossibleDFATransitions()
+                                            .stream().map(node -> node.id)
+                                            .collect(Collectors.toList());
+        assertEquals(eagerTransitions, lazyTransitions);
+      }
+    }
+  }
+
+  @Test
+  public void lazy_dfa_forgets_memoized_transitions_on_insertion() {
+    for (TransitionStrategy strategy : TransitionStrategy.values()) {
+      //ARRANGE
+      AhoCorasickTrie<ACTrieNode> eagerTrie =
+          AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(defaultData,
+              LanguageParameterFactory.defaultParameter, new ACTrieNodeFactory(strategy),
+              DFAMode.EAGER);
+      AhoCorasickTrie<ACTrieNode> lazyTrie =
+          AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(defaultData,
+              LanguageParameterFactory.defaultParameter, new ACTrieNodeFactory(strategy),
+              DFAMode.LAZY);
+      for (ACTrieNode node : lazyTrie.trieNodes) {
+        node.getAllPossibleDFATransitions(); //memoizes every transition
+      }
+
+      //ACT
+      eagerTrie.insertKeyword("atom");
+      lazyTrie.insertKeyword("atom");
+
+      //ASSERT
+      for (int i = 0; i < eagerTrie.trieNodes.size(); i++) {
+        List<Integer> eagerTransitions = eagerTrie.trieNodes.get(i).getAllPossibleDFATransitions()
+                                             .stream().map(node -> node.id)
+                                             .collect(Collectors.toList());
+        List<Integer> lazyTransitions = lazyTrie.trieNodes.get(i).getAllPossibleDFATransitions()
+                                            .stream().map(node -> node.id)
+                                            .collect(Collectors.toList());
+        assertEquals(eagerTransitions, lazyTransitions);
+      }
+    }
+  }
+
+  @Test
+  public void output_links_chain_nested_keywords() {
+    //ARRANGE
+    List<String> keys = List.of("a", "aa", "aaa", "aaaa", "baa");
+    AhoCorasickTrie<ACTrieNode> trie = AhoCorasickTrieFactory.createAhoCorasickTrieFromParams(
+        keys, LanguageParameterFactory.defaultParameter);
+    ACTrieNode aaaaNode = trie.rootNode.getNextNode('a').getNextNode('a').getNextNode('a')
+                              .getNextNode('a');
+    ACTrieNode bNode = trie.rootNode.getNextNode('b');
+    ACTrieNode baaNode = bNode.getNextNode('a').getNextNode('a');
+
+    //ACT
+    KeywordTextMatcher matcher = KeywordTextMatcher.createFromParameters(
+        LanguageParameterFactory.defaultParameter, keys);
+
+    //ASSERT
+    assertEquals(List.of("aaaa", "aaa", "aa", "a"), trie.getOutput(aaaaNode));
+    assertEquals(List.of("baa", "aa", "a"), trie.getOutput(baaNode));
+    assertEquals(List.of(), trie.getOutput(bNode));
+    assertEquals(aaaaNode.getFail(), aaaaNode.outputLink);
+    assertEquals(null, bNode.outputLink);
+    assertEquals(4 + 3 + 2 + 1, matcher.matchText("aaaa").size());
+  }
+
+  @Test
+  public void inserted_keywords_equal_rebuilt_trie() {
+    LanguageParameter params = LanguageParameterFactory.createLanguageParametersFromAlphabet(
+        List.of('a', 'b', 'c'));
+    List<String> keys = new ArrayList<>(
+        RandomStringGenerator.generateRandomStrings(params, 300, 1, 8));
+    List<String> newKeys = new ArrayList<>(
+        RandomStringGenerator.generateRandomStrings(params, 300, 1, 8));
+    newKeys.addAll(List.of("", "a", "abcabc", keys.get(0), keys.get(1).substring(1)));
+
+    for (TransitionStrategy strategy : TransitionStrategy.values()) {
+      for (DFAMode dfaMode : DFAMode.values()) {
+        //ARRANGE
+        AhoCorasickTrie<ACTrieNode> trie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(keys, params,
+                new ACTrieNodeFactory(strategy), dfaMode);
+        //Query the lazy DFA first, so insertion has to invalidate the memoized transitions
+        trie.trieNodes.forEach(ACTrieNode::getAllPossibleDFATransitions);
+        List<String> allKeys = new ArrayList<>(keys);
+        allKeys.addAll(newKeys);
+        AhoCorasickTrie<ACTrieNode> rebuiltTrie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(allKeys, params,
+                new ACTrieNodeFactory(strategy), dfaMode);
+
+        //ACT
+        trie.insertKeywords(newKeys);
+
+        //ASSERT
+        assertEquals(allKeys, trie.getKeys());
+        assertSameTrie(rebuiltTrie, trie, params);
+      }
+    }
+  }
+
+  @Test
+  public void rejected_insertions_leave_the_trie_unchanged() {
+    LanguageParameter params = LanguageParameterFactory.createLanguageParametersFromAlphabet(
+        List.of('a', 'b', 'c'));
+    List<String> keys = List.of("ab", "bc", "ca");
+
+    for (TransitionStrategy strategy : TransitionStrategy.values()) {
+      for (DFAMode dfaMode : DFAMode.values()) {
+        //ARRANGE
+        AhoCorasickTrie<ACTrieNode> trie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(keys, params,
+                new ACTrieNodeFactory(strategy), dfaMode);
+        AhoCorasickTrie<ACTrieNode> untouchedTrie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(keys, params,
+                new ACTrieNodeFactory(strategy), dfaMode);
+
+        //ACT
+        try {
+          trie.insertKeyword("cabz");
+          fail();
+        } catch (IllegalArgumentException expected) {
+          //The trie must not have been touched
+        }
+
+        //ASSERT
+        assertEquals(keys, trie.getKeys());
+        assertSameTrie(untouchedTrie, trie, params);
+        trie.insertKeyword("cab");
+        untouchedTrie.insertKeyword("cab");
+        assertSameTrie(untouchedTrie, trie, params);
+        assertEquals(untouchedTrie.trieNodes.size(), trie.freeze().getStateCount());
+      }
+    }
+  }
+
+  @Test
+  public void parallel_construction_equals_sequential_construction() {
+    LanguageParameter params = LanguageParameterFactory.createLanguageParametersFromAlphabet(
+        List.of('a', 'b', 'c', 'd', 'e'));
+    List<String> keys = new ArrayList<>(
+        RandomStringGenerator.generateRandomStrings(params, 20000, 1, 10));
+    keys.addAll(List.of("", "a", "abc", keys.get(0)));
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    try {
+      for (TransitionStrategy strategy : TransitionStrategy.values()) {
+        //ARRANGE
+        AhoCorasickTrie<ACTrieNode> sequentialTrie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(keys, params,
+                new ACTrieNodeFactory(strategy), DFAMode.EAGER);
+
+        //ACT (the deeper levels are large enough to be split into chunks)
+        AhoCorasickTrie<ACTrieNode> parallelTrie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieInParallel(keys, params,
+                new ACTrieNodeFactory(strategy), DFAMode.EAGER, pool);
+
+        //ASSERT
+        assertSameTrie(sequentialTrie, parallelTrie, params);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Asserts that both tries consist of the same nodes (compared by id), with the same goto and
+   * failure functions, outputs and DFA.
+   */
+  private static void assertSameTrie(AhoCorasickTrie<ACTrieNode> expected,
+      AhoCorasickTrie<ACTrieNode> actual, LanguageParameter params) {
+    assertEquals(expected.trieNodes.size(), actual.trieNodes.size());
+    for (int i = 0; i < actual.trieNodes.size(); i++) {
+      ACTrieNode expectedNode = expected.trieNodes.get(i);
+      ACTrieNode node = actual.trieNodes.get(i);
+      assertEquals(i, node.id);
+      assertEquals(expectedNode.parentChar, node.parentChar);
+      assertEquals(expectedNode.getFail().id, node.getFail().id);
+      assertEquals(expectedNode.keywordId, node.keywordId);
+      assertEquals(idOf(expectedNode.outputLink), idOf(node.outputLink));
+      assertEquals(expected.getOutput(expectedNode), actual.getOutput(node));
+      for (char c : params.getAlphabet()) {
+        assertEquals(idOf(expectedNode.getNextNode(c)), idOf(node.getNextNode(c)));
+        assertEquals(expectedNode.getDFATransition(c).id, node.getDFATransition(c).id);
+      }
+    }
+  }
+
+  private static int idOf(ACTrieNode node) {
+    return node == null ? -1 : node.id;
+  }
 }
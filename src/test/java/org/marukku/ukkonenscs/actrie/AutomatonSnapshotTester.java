@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Tests whether an automaton loaded from a snapshot matches exactly like the automaton that was
+ * written.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class AutomatonSnapshotTester {
+
+  private static Path createTempFile() throws IOException {
+    Path file = Files.createTempFile("automaton", ".snapshot");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void loaded_snapshots_find_same_matches() throws IOException {
+    //ARRANGE
+    List<Character> alphabet = List.of('x', 'b', 'q', 'a', '\u4e00');
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+    Random random = new Random(13);
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      StringBuilder builder = new StringBuilder();
+      for (int j = 0; j < 1 + random.nextInt(6); j++) {
+        builder.append(alphabet.get(random.nextInt(alphabet.size())));
+      }
+      keys.add(builder.toString());
+    }
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append(alphabet.get(random.nextInt(alphabet.size())));
+    }
+    Path withDFA = createTempFile();
+    Path withoutDFA = createTempFile();
+
+    DoubleArrayAhoCorasickTrie trie =
+        AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(keys, parameters);
+
+    //ACT
+    AutomatonSnapshot.write(trie, withDFA);
+    AutomatonSnapshot.write(
+        AhoCorasickTrieFactory.createDoubleArrayTrieWithoutDFA(keys, parameters), withoutDFA);
+    AhoCorasickAutomaton loaded = AutomatonSnapshot.load(withDFA);
+
+    //ASSERT
+    List<Match> expectedMatches = KeywordTextMatcher.createDoubleArrayFromParameters(
+        parameters, keys).matchText(text.toString());
+    assertEquals(expectedMatches,
+        KeywordTextMatcher.createFromAutomaton(loaded).matchText(text.toString()));
+    assertEquals(expectedMatches, KeywordTextMatcher.createFromAutomaton(
+        AutomatonSnapshot.load(withoutDFA)).matchText(text.toString()));
+    assertEquals(KeywordTextMatcher.createFromAutomaton(trie)
+            .matchText(text.toString(), MatchKind.LEFTMOST_LONGEST),
+        KeywordTextMatcher.createFromAutomaton(loaded)
+            .matchText(text.toString(), MatchKind.LEFTMOST_LONGEST));
+    assertEquals(keys.size(), loaded.getKeywordCount());
+    for (int state = 0; state < trie.getStateCount(); state++) {
+      assertEquals(trie.getStateDepth(state), loaded.getStateDepth(state));
+    }
+    for (char c : alphabet) {
+      assertEquals(parameters.map(c), loaded.getParameters().map(c));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void loading_other_files_fails() throws IOException {
+    Path file = createTempFile();
+    Files.write(file, new byte[64]);
+    AutomatonSnapshot.load(file);
+  }
+
+  @Test(expected = IOException.class)
+  public void loading_snapshots_with_overflowing_section_lengths_fails() throws IOException {
+    Path file = createTempFile();
+    AutomatonSnapshot.write(AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(
+        List.of("ab", "b"), LanguageParameterFactory.defaultParameter), file);
+    //A state count whose byte length overflows an int to 4
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(4 * Integer.BYTES, (1 << 30) + 1);
+    Files.write(file, bytes.array());
+    AutomatonSnapshot.load(file);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+import org.marukku.ukkonenscs.trienodes.ACTrieNode;
+import org.marukku.ukkonenscs.trienodes.ACTrieNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+import org.marukku.ukkonenscs.ukkonenscsfinder.RandomStringGenerator;
+
+/**
+ * Tests whether the {@link DoubleArrayAhoCorasickTrie} builds the same automaton as the node-object
+ * graph of {@link AhoCorasickTrie}.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class DoubleArrayAhoCorasickTrieTester {
+
+  private static final LanguageParameter KEY_LANGUAGE =
+      LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('a', 'b', 'c', 'd'));
+  private static final LanguageParameter TEXT_LANGUAGE =
+      LanguageParameterFactory.createLanguageParametersFromAlphabet(
+          List.of('a', 'b', 'c', 'd', 'e'));
+
+  @Test
+  public void failure_function_is_computed_correctly() {
+    //ARRANGE
+    DoubleArrayAhoCorasickTrie trie = AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(
+        List.of("other", "theater", "tattoo", "potato"),
+        LanguageParameterFactory.defaultParameter);
+    int root = trie.getRootState();
+    int potState = trie.getNextState(trie.getNextState(trie.getNextState(root, 'p'), 'o'), 't');
+    int otState = trie.getNextState(trie.getNextState(root, 'o'), 't');
+    int theState = trie.getNextState(trie.getNextState(trie.getNextState(root, 't'), 'h'), 'e');
+    int otheState = trie.getNextState(trie.getNextState(otState, 'h'), 'e');
+
+    //ASSERT
+    assertEquals("pot state should fail to ot state", otState, trie.getFail(potState));
+    assertEquals("the state should fail to root", root, trie.getFail(theState));
+    assertEquals("othe state should fail to the state", theState, trie.getFail(otheState));
+    assertEquals("root has no self loops in the trie", -1, trie.getNextState(root, 'z'));
+  }
+
+  @Test
+  public void finds_same_matches_as_node_graph() {
+    Random random = new Random(42);
+    for (int round = 0; round < 20; round++) {
+      //ARRANGE
+      List<String> keys =
+          RandomStringGenerator.generateRandomStrings(KEY_LANGUAGE, 200, 1, 9, random, 0);
+      String text = RandomStringGenerator.generateRandomStrings(TEXT_LANGUAGE, 1, 5000, 5001,
+          random, 0).get(0);
+
+      //ACT
+      KeywordTextMatcher nodeMatcher = KeywordTextMatcher.createFromParameters(
+          LanguageParameterFactory.defaultParameter, keys);
+      KeywordTextMatcher arrayMatcher = KeywordTextMatcher.createDoubleArrayFromParameters(
+          LanguageParameterFactory.defaultParameter, keys);
+
+      //ASSERT
+      assertEquals(nodeMatcher.matchText(text), arrayMatcher.matchText(text));
+    }
+  }
+
+  @Test
+  public void transitions_by_code_equal_transitions_by_char() {
+    //ARRANGE
+    LanguageParameter parameters = LanguageParameterFactory.defaultParameter;
+    List<String> keys =
+        RandomStringGenerator.generateRandomStrings(KEY_LANGUAGE, 300, 1, 9, new Random(7), 0);
+    ACTrieNodeFactory adaptive = new ACTrieNodeFactory(TransitionStrategy.ADAPTIVE);
+    AhoCorasickTrie<ACTrieNode> eagerTrie = AhoCorasickTrieFactory
+        .createAhoCorasickTrieFromParamsWithNodeFactory(keys, parameters, adaptive, DFAMode.EAGER);
+    AhoCorasickTrie<ACTrieNode> lazyTrie = AhoCorasickTrieFactory
+        .createAhoCorasickTrieFromParamsWithNodeFactory(keys, parameters, adaptive, DFAMode.LAZY);
+    List<AhoCorasickAutomaton> automata = List.of(
+        AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(keys, parameters),
+        AhoCorasickTrieFactory.createDoubleArrayTrieWithoutDFA(keys, parameters),
+        new NodeGraphAutomaton(AhoCorasickTrieFactory.createAhoCorasickTrieFromParams(keys,
+            parameters)),
+        new NodeGraphAutomaton(eagerTrie),
+        new NodeGraphAutomaton(lazyTrie));
+
+    for (AhoCorasickAutomaton automaton : automata) {
+      for (int state = 0; state < automaton.getStateCount(); state++) {
+        for (char c : parameters.getAlphabet()) {
+          //ACT
+          int byCode = automaton.getDFATransitionByCode(state, parameters.map(c));
+
+          //ASSERT
+          assertEquals(automaton.getDFATransition(state, c), byCode);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void finds_keys_that_are_prefixes_of_earlier_keys() {
+    List<String> keys = List.of("her", "he", "h");
+    List<Match> expected = List.of(new Match("h", 0, 0), new Match("he", 0, 1),
+        new Match("h", 3, 3), new Match("he", 3, 4), new Match("her", 3, 5));
+
+    assertEquals(expected, KeywordTextMatcher.createDoubleArrayFromParameters(
+        LanguageParameterFactory.defaultParameter, keys).matchText("hexher"));
+    assertEquals(expected, KeywordTextMatcher.createFromParameters(
+        LanguageParameterFactory.defaultParameter, keys).matchText("hexher"));
+  }
+}
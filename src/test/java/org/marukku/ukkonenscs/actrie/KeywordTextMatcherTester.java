@@ -6,12 +6,34 @@
 package org.marukku.ukkonenscs.actrie;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import com.sun.management.ThreadMXBean;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+import org.marukku.ukkonenscs.ukkonenscsfinder.RandomStringGenerator;
 
 /**
  * Tests whether the KeywordTextMatcher finds all matches in a sample text body.
@@ -44,4 +66,496 @@ public class KeywordTextMatcherTester {
     //ASSERT
     assertEquals(expectedMatches, new HashSet<>(matcher.matchText(textBody)));
   }
+
+  @Test
+  public void adaptive_nodes_find_same_matches_for_large_alphabets() {
+    //ARRANGE
+    List<Character> alphabet = new ArrayList<>();
+    for (char c = '\u4e00'; c < '\u4e00' + 3000; c++) {
+      alphabet.add(c);
+    }
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+    Random random = new Random(7);
+    List<String> dictionary = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder builder = new StringBuilder();
+      for (int j = 0; j < 2 + random.nextInt(4); j++) {
+        builder.append(alphabet.get(random.nextInt(50 + (i % 20) * 100)));
+      }
+      dictionary.add(builder.toString());
+    }
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      text.append(alphabet.get(random.nextInt(200)));
+    }
+
+    //ACT
+    KeywordTextMatcher dense = KeywordTextMatcher.createFromParameters(parameters, dictionary);
+    KeywordTextMatcher adaptive = KeywordTextMatcher.createFromParameters(parameters, dictionary,
+        TransitionStrategy.ADAPTIVE);
+
+    KeywordTextMatcher lazy = KeywordTextMatcher.createFromParameters(parameters, dictionary,
+        TransitionStrategy.ADAPTIVE, DFAMode.LAZY);
+
+    //ASSERT
+    assertEquals(dense.matchText(text.toString()), adaptive.matchText(text.toString()));
+    assertEquals(dense.matchText(text.toString()), lazy.matchText(text.toString()));
+  }
+
+  @Test
+  public void streaming_finds_matches_across_chunk_boundaries() throws IOException {
+    //ARRANGE
+    List<String> dictionary = List.of("her", "she", "herself", "sherman");
+    String textBody = "sheherselfwasconfusedlookingforheshermanwashisname";
+    KeywordTextMatcher matcher = KeywordTextMatcher.createFromParameters(
+        LanguageParameterFactory.defaultParameter, dictionary);
+    List<Match> expectedMatches = matcher.matchText(textBody);
+
+    //ACT
+    List<Match> chunkedMatches = new ArrayList<>();
+    MatchSession session = matcher.createSession((keywordId, start, end) ->
+        chunkedMatches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+    for (int i = 0; i < textBody.length(); i += 4) {
+      session.feed(CharBuffer.wrap(textBody, i, Math.min(i + 4, textBody.length())));
+    }
+
+    List<Match> readerMatches = new ArrayList<>();
+    long readChars = matcher.matchReader(new StringReader(textBody), (keywordId, start, end) ->
+        readerMatches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+
+    List<Match> channelMatches = new ArrayList<>();
+    long decodedChars = matcher.matchChannel(Channels.newChannel(
+        new ByteArrayInputStream(textBody.getBytes(StandardCharsets.UTF_8))),
+        StandardCharsets.UTF_8, (keywordId, start, end) ->
+            channelMatches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+
+    //ASSERT
+    assertEquals(expectedMatches, chunkedMatches);
+    assertEquals(expectedMatches, readerMatches);
+    assertEquals(expectedMatches, channelMatches);
+    assertEquals(textBody.length(), session.getPosition());
+    assertEquals(textBody.length(), readChars);
+    assertEquals(textBody.length(), decodedChars);
+  }
+
+  @Test
+  public void channel_decodes_multibyte_chars_split_between_reads() throws IOException {
+    //ARRANGE
+    List<Character> alphabet = new ArrayList<>();
+    for (char c = '\u4e00'; c < '\u4e00' + 100; c++) {
+      alphabet.add(c);
+    }
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+    Random random = new Random(11);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 50000; i++) {
+      text.append(alphabet.get(random.nextInt(10)));
+    }
+    List<String> dictionary = List.of(text.substring(21840, 21850), text.substring(100, 103),
+        text.substring(49990));
+    KeywordTextMatcher matcher = KeywordTextMatcher.createFromParameters(parameters, dictionary);
+
+    //ACT
+    List<Match> channelMatches = new ArrayList<>();
+    matcher.matchChannel(Channels.newChannel(
+        new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8))),
+        StandardCharsets.UTF_8, (keywordId, start, end) ->
+            channelMatches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+
+    //ASSERT
+    assertEquals(matcher.matchText(text.toString()), channelMatches);
+  }
+
+  @Test
+  public void bytes_and_mapped_files_are_scanned_like_text() throws IOException {
+    //ARRANGE
+    List<Character> nucleotides = List.of('A', 'C', 'G', 'T', '\n');
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(nucleotides);
+    Random random = new Random(5);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      text.append(nucleotides.get(random.nextInt(nucleotides.size())));
+    }
+    List<String> dictionary = List.of("ACGT", "GATTACA", "T\nA", "CC", text.substring(500, 520));
+    KeywordTextMatcher matcher = KeywordTextMatcher.createDoubleArrayFromParameters(parameters,
+        dictionary);
+    byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+    Path file = Files.createTempFile("keyword-text-matcher", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, bytes);
+
+    //ACT
+    List<Match> byteMatches = new ArrayList<>();
+    matcher.matchBytes(bytes, (keywordId, start, end) ->
+        byteMatches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+    List<Match> fileMatches = new ArrayList<>();
+    long scannedBytes = matcher.matchFile(file, (keywordId, start, end) ->
+        fileMatches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+
+    //ASSERT
+    List<Match> expectedMatches = matcher.matchText(text.toString());
+    assertEquals(expectedMatches, byteMatches);
+    assertEquals(expectedMatches, fileMatches);
+    assertEquals(bytes.length, scannedBytes);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void bytes_cannot_be_scanned_with_unicode_alphabets() {
+    KeywordTextMatcher matcher = KeywordTextMatcher.createFromParameters(
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('a', '\u4e00')),
+        List.of("a"));
+    matcher.matchBytes(new byte[]{'a'}, (keywordId, start, end) -> { });
+  }
+
+  @Test
+  public void parallel_matching_equals_sequential_matching() {
+    //ARRANGE
+    Random random = new Random(3);
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 600000; i++) {
+      builder.append((char) ('a' + random.nextInt(3)));
+    }
+    String text = builder.toString();
+    //Chunks are 66667 chars long, so some keywords cross chunk boundaries
+    List<String> dictionary = List.of("a", "abc", "cab", "aaaaaaa", text.substring(66660, 66680),
+        text.substring(133330, 133334), text.substring(599990));
+    KeywordTextMatcher matcher = KeywordTextMatcher.createDoubleArrayFromParameters(
+        LanguageParameterFactory.defaultParameter, dictionary);
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    //ACT
+    List<Match> parallelMatches;
+    List<Match> builderMatches;
+    List<Match> shortTextMatches;
+    try {
+      parallelMatches = matcher.matchTextParallel(text, pool);
+      builderMatches = matcher.matchTextParallel(builder, pool);
+      shortTextMatches = matcher.matchTextParallel("abcab", pool);
+    } finally {
+      pool.shutdown();
+    }
+
+    //ASSERT
+    assertEquals(matcher.matchText(text), parallelMatches);
+    assertEquals(parallelMatches, builderMatches);
+    assertEquals(matcher.matchText("abcab"), shortTextMatches);
+  }
+
+  @Test
+  public void char_sequences_are_scanned_in_place_without_allocating_per_match() {
+    //ARRANGE
+    List<String> dictionary = List.of("a", "aa", "ab", "b");
+    KeywordTextMatcher matcher = KeywordTextMatcher.createDoubleArrayFromParameters(
+        LanguageParameterFactory.defaultParameter, dictionary);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      text.append(i % 3 == 0 ? 'b' : 'a');
+    }
+    List<Match> expectedMatches = matcher.matchText(text.toString());
+    List<Match> matches = new ArrayList<>();
+    long[] positionSums = new long[2];
+    MatchListener summingListener = (keywordId, start, end) -> {
+      positionSums[0] += start;
+      positionSums[1] += end;
+    };
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    //ACT
+    matcher.matchText(text, (keywordId, start, end) ->
+        matches.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    matcher.matchText(text, summingListener);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    //ASSERT
+    assertEquals(expectedMatches, matches);
+    assertEquals(expectedMatches.stream().mapToLong(match -> match.startPosition).sum(),
+        positionSums[0]);
+    assertEquals(expectedMatches.stream().mapToLong(match -> match.endPosition).sum(),
+        positionSums[1]);
+    //A match object per match would take several MB; the session is the only allocation
+    assertTrue("allocated " + allocated + " bytes", allocated < expectedMatches.size());
+  }
+
+  @Test
+  public void leftmost_match_kinds_pick_first_or_longest_keyword() {
+    //ARRANGE
+    KeywordTextMatcher matcher = KeywordTextMatcher.createFromParameters(
+        LanguageParameterFactory.defaultParameter, List.of("sam", "samwise", "wise", "mwi"));
+
+    //ACT + ASSERT
+    assertEquals(List.of(new Match("sam", 0, 2), new Match("wise", 3, 6)),
+        matcher.matchText("samwise", MatchKind.LEFTMOST_FIRST));
+    assertEquals(List.of(new Match("samwise", 0, 6)),
+        matcher.matchText("samwise", MatchKind.LEFTMOST_LONGEST));
+    assertEquals(4, matcher.matchText("samwise", MatchKind.STANDARD).size());
+  }
+
+  @Test
+  public void leftmost_matches_next_to_a_long_keyword_are_found_in_linear_time() {
+    //ARRANGE
+    List<String> dictionary = List.of("a", "b".repeat(2000));
+    String text = "a".repeat(200000);
+    List<AhoCorasickAutomaton> automata = List.of(
+        new NodeGraphAutomaton(AhoCorasickTrieFactory.createAhoCorasickTrieFromParams(dictionary,
+            LanguageParameterFactory.defaultParameter)),
+        AhoCorasickTrieFactory.createDoubleArrayTrieFromParams(dictionary,
+            LanguageParameterFactory.defaultParameter));
+
+    for (AhoCorasickAutomaton automaton : automata) {
+      for (MatchKind kind : List.of(MatchKind.LEFTMOST_FIRST, MatchKind.LEFTMOST_LONGEST)) {
+        CountingAutomaton countingAutomaton = new CountingAutomaton(automaton);
+        KeywordTextMatcher matcher = KeywordTextMatcher.createFromAutomaton(countingAutomaton);
+        long[] matchCount = new long[1];
+
+        //ACT
+        matcher.matchText(text, kind, (keywordId, start, end) -> matchCount[0]++);
+
+        //ASSERT
+        //Every 'a' is read once to find its match and once more to see that it is a new match
+        assertEquals(text.length(), matchCount[0]);
+        assertTrue(kind + " took " + countingAutomaton.transitions + " transitions",
+            countingAutomaton.transitions <= 2L * text.length());
+      }
+    }
+  }
+
+  @Test
+  public void match_kinds_equal_brute_force_oracle() {
+    Random random = new Random(5);
+    List<Character> alphabet = List.of('a', 'b', 'c');
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+
+    for (int round = 0; round < 300; round++) {
+      //ARRANGE
+      List<String> dictionary = new ArrayList<>(new LinkedHashSet<>(
+          RandomStringGenerator.generateRandomStrings(parameters, 1 + random.nextInt(10), 1, 6,
+              random, 0)));
+      String text = RandomStringGenerator.generateRandomStrings(parameters, 1, 0, 60, random, 0)
+          .get(0);
+      List<KeywordTextMatcher> matchers = List.of(
+          KeywordTextMatcher.createFromParameters(parameters, dictionary),
+          KeywordTextMatcher.createDoubleArrayFromParameters(parameters, dictionary));
+
+      for (KeywordTextMatcher matcher : matchers) {
+        for (MatchKind kind : MatchKind.values()) {
+          //ACT
+          List<Match> matches = matcher.matchText(text, kind);
+
+          //ASSERT
+          assertEquals(kind + " " + dictionary + " in " + text,
+              bruteForceMatches(text, dictionary, kind), matches);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void queries_agree_with_match_text() {
+    Random random = new Random(7);
+    List<Character> alphabet = List.of('a', 'b', 'c', 'd');
+    LanguageParameter parameters =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+
+    for (int round = 0; round < 300; round++) {
+      //ARRANGE
+      List<String> dictionary = RandomStringGenerator.generateRandomStrings(parameters,
+          1 + random.nextInt(4), 1, 5, random, 0);
+      String text = RandomStringGenerator.generateRandomStrings(parameters, 1, 0, 40, random, 0)
+          .get(0);
+      KeywordTextMatcher matcher = round % 2 == 0
+          ? KeywordTextMatcher.createFromParameters(parameters, dictionary)
+          : KeywordTextMatcher.createDoubleArrayFromParameters(parameters, dictionary);
+      List<Match> matches = matcher.matchText(text);
+      List<Match> firstMatch = new ArrayList<>();
+
+      //ACT
+      boolean containsAny = matcher.containsAny(text);
+      boolean found = matcher.findFirst(text, (keywordId, start, end) ->
+          firstMatch.add(new Match(dictionary.get(keywordId), (int) start, (int) end)));
+      long count = matcher.count(text);
+
+      //ASSERT
+      assertEquals(!matches.isEmpty(), containsAny);
+      assertEquals(!matches.isEmpty(), found);
+      assertEquals(matches.isEmpty() ? List.of() : List.of(matches.get(0)), firstMatch);
+      assertEquals(matches.size(), count);
+    }
+  }
+
+  @Test
+  public void queries_do_not_allocate_without_a_recording() {
+    //ARRANGE
+    KeywordTextMatcher matcher = KeywordTextMatcher.createDoubleArrayFromParameters(
+        LanguageParameterFactory.defaultParameter, List.of("she", "he", "hers"));
+    String text = "ushers";
+    MatchListener listener = (keywordId, start, end) -> { };
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long total = 0;
+
+    //ACT
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10000; i++) {
+      total += matcher.containsAny(text) ? 1 : 0;
+      total += matcher.findFirst(text, listener) ? 1 : 0;
+      total += matcher.count(text);
+    }
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    //ASSERT
+    assertEquals(10000 * 5, total);
+    //A single event per query would already allocate more than a megabyte
+    assertTrue("allocated " + allocated + " bytes", allocated < 10000);
+  }
+
+  @Test
+  public void scans_and_constructions_emit_flight_recorder_events() throws IOException {
+    //ARRANGE
+    List<String> dictionary = List.of("her", "she", "herself");
+    Path dump = Files.createTempFile("scan", ".jfr");
+    List<RecordedEvent> events;
+
+    //ACT
+    try (Recording recording = new Recording()) {
+      recording.enable("org.marukku.ukkonenscs.TrieConstruction");
+      recording.enable("org.marukku.ukkonenscs.TextScan").withThreshold(Duration.ZERO);
+      recording.start();
+      KeywordTextMatcher matcher = KeywordTextMatcher.createDoubleArrayFromParameters(
+          LanguageParameterFactory.defaultParameter, dictionary);
+      matcher.matchText("ushersherself", (keywordId, start, end) -> { });
+      matcher.containsAny("nothing");
+      recording.stop();
+      recording.dump(dump);
+      events = RecordingFile.readAllEvents(dump);
+    } finally {
+      Files.delete(dump);
+    }
+
+    //ASSERT
+    RecordedEvent construction = events.stream()
+        .filter(event -> event.getEventType().getName().endsWith("TrieConstruction"))
+        .findFirst().orElseThrow();
+    assertEquals("DoubleArrayAhoCorasickTrie", construction.getString("automaton"));
+    assertEquals(3, construction.getInt("keywordCount"));
+    List<RecordedEvent> scans = new ArrayList<>();
+    events.stream().filter(event -> event.getEventType().getName().endsWith("TextScan"))
+        .forEach(scans::add);
+    assertEquals(2, scans.size());
+    assertEquals("matchText", scans.get(0).getString("operation"));
+    assertEquals(13, scans.get(0).getLong("scannedLength"));
+    assertEquals(5, scans.get(0).getLong("matchCount"));
+    assertEquals("containsAny", scans.get(1).getString("operation"));
+    assertEquals(0, scans.get(1).getLong("matchCount"));
+  }
+
+  /**
+   * Counts the DFA transitions taken by the matchers scanning with it.
+   */
+  private static final class CountingAutomaton implements AhoCorasickAutomaton {
+
+    private final AhoCorasickAutomaton automaton;
+    private long transitions = 0;
+
+    CountingAutomaton(AhoCorasickAutomaton automaton) {
+      this.automaton = automaton;
+    }
+
+    @Override
+    public int getRootState() {
+      return automaton.getRootState();
+    }
+
+    @Override
+    public int getStateCount() {
+      return automaton.getStateCount();
+    }
+
+    @Override
+    public int getDFATransition(int state, char input) {
+      transitions++;
+      return automaton.getDFATransition(state, input);
+    }
+
+    @Override
+    public int getDFATransitionByCode(int state, int code) {
+      transitions++;
+      return automaton.getDFATransitionByCode(state, code);
+    }
+
+    @Override
+    public int getStateDepth(int state) {
+      return automaton.getStateDepth(state);
+    }
+
+    @Override
+    public int getKeywordId(int state) {
+      return automaton.getKeywordId(state);
+    }
+
+    @Override
+    public int getOutputLink(int state) {
+      return automaton.getOutputLink(state);
+    }
+
+    @Override
+    public String getKeyword(int keywordId) {
+      return automaton.getKeyword(keywordId);
+    }
+
+    @Override
+    public int getKeywordCount() {
+      return automaton.getKeywordCount();
+    }
+
+    @Override
+    public LanguageParameter getParameters() {
+      return automaton.getParameters();
+    }
+  }
+
+  /**
+   * Finds the matches of kind by trying all keywords at all positions.
+   */
+  private static List<Match> bruteForceMatches(String text, List<String> dictionary,
+      MatchKind kind) {
+    List<Match> matches = new ArrayList<>();
+    if (kind == MatchKind.STANDARD) {
+      //Matches are reported by their end, the longest one first
+      List<String> byLength = new ArrayList<>(dictionary);
+      byLength.sort((first, second) -> second.length() - first.length());
+      for (int end = 0; end < text.length(); end++) {
+        for (String keyword : byLength) {
+          int start = end + 1 - keyword.length();
+          if (start >= 0 && text.startsWith(keyword, start)) {
+            matches.add(new Match(keyword, start, end));
+          }
+        }
+      }
+      return matches;
+    }
+
+    int position = 0;
+    while (true) {
+      Match best = null;
+      for (int start = position; start < text.length() && best == null; start++) {
+        for (String keyword : dictionary) {
+          if (text.startsWith(keyword, start) && (best == null
+              || kind == MatchKind.LEFTMOST_LONGEST && keyword.length() > best.word.length())) {
+            best = new Match(keyword, start, start + keyword.length() - 1);
+          }
+        }
+      }
+      if (best == null) {
+        return matches;
+      }
+      matches.add(best);
+      position = best.endPosition + 1;
+    }
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+import org.marukku.ukkonenscs.trienodes.ACTrieNode;
+import org.marukku.ukkonenscs.trienodes.ACTrieNodeFactory;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
+import org.marukku.ukkonenscs.ukkonenscsfinder.RandomStringGenerator;
+
+/**
+ * Tests whether TrieFootprint counts the nodes of a trie exactly, whether its projected bytes are
+ * close to those of the built trie and whether budgets are enforced before anything is built.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class TrieFootprintTester {
+
+  @Test
+  public void node_count_equals_node_count_of_built_trie() {
+    //ARRANGE
+    LanguageParameter params = LanguageParameterFactory.defaultParameter;
+    List<String> keys = new ArrayList<>(List.of("she", "he", "her", "hers", "he", "sherman"));
+    keys.addAll(RandomStringGenerator.generateRandomStrings(
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('a', 'b', 'c')), 500,
+        1, 9, new Random(7), 0));
+
+    //ACT
+    TrieFootprint footprint = TrieFootprint.estimate(keys, params);
+    AhoCorasickTrie<ACTrieNode> trie =
+        AhoCorasickTrieFactory.createAhoCorasickTrieFromParams(keys, params);
+
+    //ASSERT
+    assertEquals(trie.trieNodes.size(), footprint.getNodeCount());
+    assertEquals(keys.size(), footprint.getKeyCount());
+  }
+
+  @Test
+  public void large_alphabets_are_built_with_adaptive_transitions() {
+    //ARRANGE
+    List<Character> alphabet = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      alphabet.add((char) ('\u4e00' + i));
+    }
+    LanguageParameter params =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+    List<String> keys =
+        RandomStringGenerator.generateRandomStrings(params, 200, 3, 8, new Random(11), 0);
+    TrieFootprint footprint = TrieFootprint.estimate(keys, params);
+
+    //ACT
+    AhoCorasickTrie<ACTrieNode> trie = AhoCorasickTrieFactory.createAhoCorasickTrieWithinBudget(
+        keys, params, DFAMode.EAGER, 64L << 20);
+
+    //ASSERT
+    assertEquals(TransitionStrategy.ADAPTIVE, footprint.getCheapestStrategy(DFAMode.EAGER));
+    assertTrue(footprint.estimateNodeGraphBytes(TransitionStrategy.ADAPTIVE, DFAMode.EAGER)
+                   < footprint.estimateNodeGraphBytes(TransitionStrategy.DENSE, DFAMode.EAGER));
+    assertEquals(TransitionStrategy.ADAPTIVE, trie.trieNodes.get(0).getTransitionStrategy());
+  }
+
+  @Test
+  public void projected_bytes_are_close_to_the_allocated_bytes() {
+    //ARRANGE
+    LanguageParameter params = LanguageParameterFactory.byteParameter;
+    List<String> keys =
+        RandomStringGenerator.generateRandomStrings(params, 2000, 4, 12, new Random(3), 0);
+    TrieFootprint footprint = TrieFootprint.estimate(keys, params);
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    for (TransitionStrategy strategy : TransitionStrategy.values()) {
+      for (DFAMode dfaMode : DFAMode.values()) {
+        //ACT
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        AhoCorasickTrie<ACTrieNode> trie =
+            AhoCorasickTrieFactory.createAhoCorasickTrieFromParamsWithNodeFactory(keys, params,
+                new ACTrieNodeFactory(strategy), dfaMode);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long projected = footprint.estimateNodeGraphBytes(strategy, dfaMode);
+
+        //ASSERT
+        //The allocations of a build bound its size from above; the tables, which dominate both,
+        //are known exactly. Adaptive tables leave garbage behind when they are promoted.
+        String message = strategy + " " + dfaMode + ": projected " + projected + " bytes, "
+                             + "allocated " + allocated + " bytes for " + trie.trieNodes.size()
+                             + " nodes";
+        assertTrue(message, projected < 1.25 * allocated);
+        assertTrue(message, projected > 0.5 * allocated);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void builds_exceeding_the_budget_fail_up_front() {
+    //ARRANGE
+    List<String> keys = List.of("she", "he", "her", "hers");
+
+    //ACT
+    KeywordTextMatcher.createWithinBudget(LanguageParameterFactory.defaultParameter, keys, 100);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.actrie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Tests whether {@link VersionedKeywordTextMatcher} publishes consistent versions.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class VersionedKeywordTextMatcherTester {
+
+  @Test
+  public void updates_publish_new_versions_and_keep_old_ones_intact() {
+    //ARRANGE
+    VersionedKeywordTextMatcher dictionary =
+        VersionedKeywordTextMatcher.create(LanguageParameterFactory.defaultParameter,
+            List.of("he", "she"));
+    KeywordTextMatcher oldMatcher = dictionary.current();
+
+    //ACT
+    long version = dictionary.addKeywords(List.of("hers"));
+
+    //ASSERT
+    assertEquals(2, version);
+    assertEquals(2, dictionary.getVersion());
+    assertEquals(List.of("he", "she", "hers"), dictionary.getKeywords());
+    assertEquals(2, oldMatcher.matchText("ushers").size());
+    assertEquals(3, dictionary.current().matchText("ushers").size());
+    assertEquals(1, dictionary.current().matchText("ushers").stream()
+                        .filter(match -> match.word.equals("hers")).count());
+  }
+
+  @Test
+  public void concurrent_readers_always_see_a_complete_version() throws Exception {
+    //ARRANGE
+    //Version i matches ";k<i>;" exactly once in the text
+    StringBuilder builder = new StringBuilder(";");
+    for (int i = 0; i < 2000; i++) {
+      builder.append('k').append(i).append(';');
+    }
+    String text = builder.toString();
+    VersionedKeywordTextMatcher dictionary = VersionedKeywordTextMatcher
+        .create(LanguageParameterFactory.byteParameter, keywordsOfVersion(0));
+    AtomicBoolean done = new AtomicBoolean();
+    ExecutorService readers = Executors.newFixedThreadPool(4);
+
+    //ACT
+    List<Future<Integer>> scans = new ArrayList<>();
+    for (int reader = 0; reader < 4; reader++) {
+      scans.add(readers.submit(() -> {
+        int scanCount = 0;
+        do {
+          KeywordTextMatcher matcher = dictionary.current();
+          List<Match> matches = matcher.matchText(text);
+          assertEquals(1, matches.size());
+          scanCount++;
+        } while (!done.get());
+        return scanCount;
+      }));
+    }
+    for (int version = 1; version < 50; version++) {
+      dictionary.reload(keywordsOfVersion(version));
+    }
+    done.set(true);
+
+    //ASSERT
+    for (Future<Integer> scan : scans) {
+      assertTrue(scan.get() > 0);
+    }
+    readers.shutdown();
+    assertEquals(50, dictionary.getVersion());
+    assertEquals(keywordsOfVersion(49), dictionary.getKeywords());
+    assertEquals(";k49;", dictionary.current().matchText(text).get(0).word);
+  }
+
+  private static List<String> keywordsOfVersion(int version) {
+    return List.of(";k" + version + ";");
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.alphabet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests whether the primitive mappings of {@link LanguageParameter} agree with the mapper
+ * functions they were derived from.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class LanguageParameterTester {
+
+  private static void assertMapsLikeAlphabetOrder(LanguageParameter parameters,
+      List<Character> alphabet) {
+    for (int i = 0; i < alphabet.size(); i++) {
+      assertEquals(i, parameters.map(alphabet.get(i)));
+    }
+  }
+
+  @Test
+  public void contiguous_alphabet_is_mapped_correctly() {
+    LanguageParameter parameters = LanguageParameterFactory.defaultParameter;
+    for (char c = 'a'; c <= 'z'; c++) {
+      assertEquals(c - 'a', parameters.map(c));
+    }
+    //Characters outside of the alphabet are still handled by the mapper
+    assertEquals('A' - 'a', parameters.map('A'));
+  }
+
+  @Test
+  public void dense_and_sparse_alphabets_are_mapped_correctly() {
+    //ARRANGE
+    List<Character> dense = List.of('t', 'g', 'c', 'a');
+    List<Character> sparse = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      sparse.add((char) (i * 600 + 17));
+    }
+
+    //ASSERT
+    assertMapsLikeAlphabetOrder(
+        LanguageParameterFactory.createLanguageParametersFromParams(dense::indexOf, dense), dense);
+    assertMapsLikeAlphabetOrder(
+        LanguageParameterFactory.createLanguageParametersFromParams(sparse::indexOf, sparse),
+        sparse);
+  }
+
+  @Test
+  public void contains_only_accepts_characters_of_the_alphabet() {
+    List<Character> dense = List.of('t', 'g', 'c', 'a');
+    List<Character> sparse = List.of('a', '\u4e00', '\uffff');
+    LanguageParameter contiguous = LanguageParameterFactory.defaultParameter;
+    LanguageParameter table =
+        LanguageParameterFactory.createLanguageParametersFromParams(dense::indexOf, dense);
+    LanguageParameter hashed =
+        LanguageParameterFactory.createLanguageParametersFromParams(sparse::indexOf, sparse);
+
+    assertTrue(contiguous.contains('z'));
+    assertFalse(contiguous.contains('A'));
+    assertTrue(table.contains('g'));
+    assertFalse(table.contains('b'));
+    assertTrue(hashed.contains('\u4e00'));
+    assertFalse(hashed.contains('b'));
+  }
+
+  @Test
+  public void parameters_from_keys_map_every_character() {
+    //ARRANGE
+    List<String> keys = List.of("\u4e00x\uffff", "\u0000b");
+    LanguageParameter parameters = LanguageParameterFactory.createLanguageParametersFromKeys(keys);
+
+    //ASSERT
+    List<Integer> codes = new ArrayList<>();
+    for (char c : parameters.getAlphabet()) {
+      codes.add(parameters.map(c));
+    }
+    codes.sort(Integer::compare);
+    assertEquals(List.of(0, 1, 2, 3, 4), codes);
+  }
+
+  @Test
+  public void byte_languages_are_detected() {
+    assertTrue(LanguageParameterFactory.defaultParameter.isByteLanguage());
+    assertTrue(LanguageParameterFactory.byteParameter.isByteLanguage());
+    assertFalse(LanguageParameterFactory.createLanguageParametersFromAlphabet(
+        List.of('a', '\u0100')).isByteLanguage());
+    for (char c = 0; c < 256; c++) {
+      assertEquals(c, LanguageParameterFactory.byteParameter.map(c));
+    }
+  }
+}
@@ -4,7 +4,9 @@
  */
 
 package org.marukku.ukkonenscs.trienodes;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
@@ -52,4 +54,24 @@ public class ACTrieNodeTester {
     assertFalse(root.isLeafInAhoCorasickGraph());
     assertFalse(heNode.isLeafInAhoCorasickGraph());
   }
+
+  @Test
+  public void adaptive_node_keeps_transitions_while_growing() {
+    //Arrange
+    ACTrieNodeFactory factory = new ACTrieNodeFactory(TransitionStrategy.ADAPTIVE);
+    LanguageParameter parameters = LanguageParameterFactory.defaultParameter;
+    root = factory.createFromDefaultValues(parameters, false, '$');
+    String children = "zyxwvutsrqponmlkj";
+
+    //ACT & ASSERT - passes through the sorted, hashed and dense representations
+    for (int i = 0; i < children.length(); i++) {
+      char c = children.charAt(i);
+      root.setNextNode(c, factory.createFromDefaultValues(parameters, true, c));
+      for (int j = 0; j <= i; j++) {
+        assertEquals(children.charAt(j), root.getNextNode(children.charAt(j)).parentChar);
+      }
+      assertNull(root.getNextNode('a'));
+    }
+    assertFalse(root.isLeafInAhoCorasickGraph());
+  }
 }
@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Tests whether {@link BatchSCSSolver} finds the same superstrings as {@link UkkonenSCSFinder}
+ * and whether its workspaces are reused without allocating.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class BatchSCSSolverTester {
+
+  private static List<List<String>> generateProblems(int problemCount, long seed) {
+    LanguageParameter dna =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('a', 'c', 'g', 't'));
+    Random random = new Random(seed);
+    List<List<String>> problems = new ArrayList<>(problemCount);
+    for (int i = 0; i < problemCount; i++) {
+      LanguageParameter params = i % 2 == 0 ? dna : LanguageParameterFactory.defaultParameter;
+      problems.add(RandomStringGenerator.generateRandomStrings(params, 20 + random.nextInt(181),
+          2, 12, random, i % 3));
+    }
+    return problems;
+  }
+
+  @Test
+  public void finds_same_superstrings_as_single_finders() {
+    //ARRANGE
+    List<List<String>> problems = new ArrayList<>(generateProblems(300, 5));
+    problems.add(List.of("aki", "ele", "kiki", "kira", "lea"));
+    problems.add(List.of("ab", "ab", "b", "abc", "bca"));
+    ForkJoinPool pool = new ForkJoinPool(4);
+    BatchSCSSolver solver = BatchSCSSolver.create(pool);
+
+    //ACT
+    List<String> superstrings;
+    List<String> secondRun;
+    List<String> emptyProblem;
+    try {
+      superstrings = solver.solveAll(problems);
+      secondRun = solver.solveAll(problems);
+      emptyProblem = solver.solveAll(List.of(List.of()));
+    } finally {
+      pool.shutdown();
+    }
+
+    //ASSERT
+    assertEquals(problems.size(), superstrings.size());
+    for (int i = 0; i < problems.size(); i++) {
+      assertEquals(UkkonenSCSFinder.createFromKeys(problems.get(i)).getSCS(),
+          superstrings.get(i));
+      for (String key : problems.get(i)) {
+        assertTrue(superstrings.get(i).contains(key));
+      }
+    }
+    assertEquals(superstrings, secondRun);
+    assertEquals(List.of(""), emptyProblem);
+  }
+
+  @Test
+  public void streamed_problems_are_reported_with_their_index() {
+    //ARRANGE
+    List<List<String>> problems = generateProblems(200, 9);
+    ConcurrentHashMap<Long, String> superstrings = new ConcurrentHashMap<>();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    BatchSCSSolver solver = BatchSCSSolver.create(pool, 3);
+
+    //ACT
+    try {
+      solver.solveAll(problems.iterator(),
+          (index, superstring) -> superstrings.put(index, superstring.toString()));
+    } finally {
+      pool.shutdown();
+    }
+
+    //ASSERT
+    assertEquals(problems.size(), superstrings.size());
+    for (int i = 0; i < problems.size(); i++) {
+      assertEquals(CompactUkkonenSCSFinder.createFromKeys(problems.get(i)).getSCS(),
+          superstrings.get((long) i));
+    }
+  }
+
+  @Test
+  public void warm_workspaces_do_not_allocate() {
+    //ARRANGE
+    List<List<String>> problems = generateProblems(500, 13);
+    SCSWorkspace workspace = new SCSWorkspace();
+    long lengthSum = 0;
+    for (List<String> problem : problems) {
+      lengthSum += workspace.solve(problem).length();
+    }
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    //ACT
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long secondLengthSum = 0;
+    for (List<String> problem : problems) {
+      secondLengthSum += workspace.solve(problem).length();
+    }
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    //ASSERT
+    assertEquals(lengthSum, secondLengthSum);
+    //A single finder allocates tens of KB per problem; the workspace reuses all of its arrays
+    assertTrue("allocated " + allocated + " bytes", allocated < problems.size());
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Tests whether {@link CompactUkkonenSCSFinder} behaves exactly like {@link UkkonenSCSFinder}.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class CompactUkkonenSCSFinderTester {
+
+  @Test
+  public void finds_same_superstring_as_node_based_finder() {
+    LanguageParameter params =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('a', 'c', 'g', 't'));
+    for (int round = 0; round < 10; round++) {
+      //ARRANGE
+      List<String> keys = RandomStringGenerator.generateRandomStrings(params, 2000, 3, 12);
+
+      //ACT
+      String expected = UkkonenSCSFinder.createFromKeys(keys).getSCS();
+      String actual = CompactUkkonenSCSFinder.createFromKeys(keys).getSCS();
+
+      //ASSERT
+      assertEquals(expected, actual);
+      for (String key : keys) {
+        assertTrue(actual.contains(key));
+      }
+    }
+  }
+
+  @Test
+  public void depth_and_supporters_are_correct() {
+    //ARRANGE
+    List<String> keys = List.of("aki", "ele", "kiki", "kira", "lea");
+    CompactUkkonenSCSFinder finder =
+        CompactUkkonenSCSFinder.createFromParams(keys, LanguageParameterFactory.defaultParameter);
+
+    //The supporters of root should be 0, 1, 2, 3, 4
+    Set<Integer> rootSupporters = new HashSet<>();
+    for (int s = finder.supporterStart[0]; s < finder.supporterStart[1]; s++) {
+      rootSupporters.add(finder.supporters[s]);
+    }
+
+    //ASSERT
+    assertEquals(Set.of(0, 1, 2, 3, 4), rootSupporters);
+    assertEquals(0, finder.depth[0]);
+    assertTrue(Set.of("eleakirakiki", "eleakikira").contains(finder.getSCS()));
+  }
+}
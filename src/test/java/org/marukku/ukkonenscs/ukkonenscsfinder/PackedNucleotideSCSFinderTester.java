@@ -0,0 +1,142 @@
+/*
+ *  Copyright (c) MIT License
+ *  2020, Markus Walder (https://github.com/M4rukku)
+ */
+
+package org.marukku.ukkonenscs.ukkonenscsfinder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+
+/**
+ * Tests whether {@link PackedNucleotideSCSFinder} finds the same superstring as {@link
+ * CompactUkkonenSCSFinder} working on Strings.
+ *
+ * @author Markus Walder
+ * @since 17.10.2026, Sa.
+ */
+public class PackedNucleotideSCSFinderTester {
+
+  @Test
+  public void finds_same_superstring_as_compact_finder() {
+    LanguageParameter params =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('A', 'C', 'G', 'T'));
+    for (int round = 0; round < 10; round++) {
+      //ARRANGE
+      List<String> reads = RandomStringGenerator.generateRandomStrings(params, 2000, 3, 40);
+      int[] readLengths = reads.stream().mapToInt(String::length).toArray();
+
+      //ACT
+      CompactUkkonenSCSFinder compactFinder = CompactUkkonenSCSFinder.createFromParams(reads,
+          params);
+      String expected = compactFinder.getSCS();
+      PackedNucleotideSCSFinder finder = PackedNucleotideSCSFinder.createFromPackedReads(
+          PackedNucleotideSCSFinder.pack(reads), readLengths);
+
+      //ASSERT
+      assertEquals(expected.length(), finder.getSCSLength());
+      assertEquals(expected, PackedNucleotideSCSFinder.unpack(finder.getPackedSCS(),
+          finder.getSCSLength()));
+      assertArrayEquals(compactFinder.getOverlapPath().getOrder(),
+          finder.getOverlapPath().getOrder());
+      assertArrayEquals(compactFinder.getOverlapPath().getOverlaps(),
+          finder.getOverlapPath().getOverlaps());
+    }
+  }
+
+  @Test
+  public void packing_round_trips() {
+    List<String> reads = List.of("ACGTACGTACGTACGTACGTACGTACGTACGTT", "", "GATTACA");
+    long[] packed = PackedNucleotideSCSFinder.pack(reads);
+
+    assertEquals(2, packed.length);
+    assertEquals(String.join("", reads), PackedNucleotideSCSFinder.unpack(packed, 40));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void too_few_packed_bases_are_rejected() {
+    PackedNucleotideSCSFinder.createFromPackedReads(new long[1], new int[]{20, 20});
+  }
+
+  @Test
+  public void oversized_inputs_are_rejected() {
+    try {
+      PackedNucleotideSCSFinder.createFromPackedReads(new long[1],
+          new int[]{Integer.MAX_VALUE, 100});
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("supported"));
+    }
+  }
+
+  @Test
+  public void trie_grows_with_its_states_for_overlapping_reads() {
+    //ARRANGE
+    LanguageParameter params =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('A', 'C', 'G', 'T'));
+    //A coverage of 200: 50 distinct reads sequenced 200 times each
+    List<String> distinctReads =
+        RandomStringGenerator.generateRandomStrings(params, 50, 100, 101, new Random(5), 0);
+    List<String> reads = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      reads.addAll(distinctReads);
+    }
+    long totalBases = 100L * reads.size();
+    long[] packedBases = PackedNucleotideSCSFinder.pack(reads);
+    int[] readLengths = new int[reads.size()];
+    Arrays.fill(readLengths, 100);
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    //ACT
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    PackedNucleotideSCSFinder.createFromPackedReads(packedBases, readLengths);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    //ASSERT
+    //Everything allocated bounds the peak: the supporters (4 bytes per base) dominate, a child
+    //table sized by the bases alone would add another 16 bytes per base
+    assertTrue("allocated " + allocated + " bytes for " + totalBases + " bases",
+        allocated < 8 * totalBases);
+  }
+
+  @Test
+  public void needs_a_fraction_of_the_memory_of_the_node_based_finder() {
+    //ARRANGE
+    LanguageParameter params =
+        LanguageParameterFactory.createLanguageParametersFromAlphabet(List.of('A', 'C', 'G', 'T'));
+    List<String> reads =
+        RandomStringGenerator.generateRandomStrings(params, 5000, 100, 101, new Random(3), 0);
+    long[] packedBases = PackedNucleotideSCSFinder.pack(reads);
+    int[] readLengths = new int[reads.size()];
+    Arrays.fill(readLengths, 100);
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    //ACT
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    PackedNucleotideSCSFinder.createFromPackedReads(packedBases, readLengths);
+    long packedAllocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    UkkonenSCSFinder.createFromKeys(reads);
+    long nodesAllocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    //ASSERT
+    //Everything the packed finder allocates bounds its peak footprint (about 70 bytes per base);
+    //the node based finder allocates about 800 bytes per base, of which about 300 stay reachable
+    assertTrue("packed " + packedAllocated + " bytes, nodes " + nodesAllocated + " bytes",
+        8 * packedAllocated < nodesAllocated);
+  }
+}
@@ -7,32 +7,66 @@ package org.marukku.ukkonenscs.ukkonenscsfinder;
 
 import org.marukku.ukkonenscs.alphabet.LanguageParameter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 /**
  * Statically generates lists of random strings given an org.marukku.ukkonenscs.alphabet for use in testing..
+ * It is also the data source of the benchmarks, which need reproducible (seeded) and skewed data.
  *
  * @author Markus Walder
  * @since 26.12.2020, Sa.
  */
-class RandomStringGenerator {
+public class RandomStringGenerator {
 
-  static List<String> generateRandomStrings(LanguageParameter params,
+  public static List<String> generateRandomStrings(LanguageParameter params,
       int numStringsToGenerate, int minStringLength, int maxStringLength) {
+    return generateRandomStrings(params, numStringsToGenerate, minStringLength, maxStringLength,
+        new Random(), 0);
+  }
+
+  /**
+   * Generates random strings from a seeded random source. The characters of the alphabet are drawn
+   * from a Zipf distribution with exponent skew: the k-th character of the alphabet is drawn with a
+   * probability proportional to 1/k^skew. A skew of 0 draws all characters uniformly.
+   *
+   * @param params               the language of the strings
+   * @param numStringsToGenerate the number of strings
+   * @param minStringLength      the minimal length of a string (inclusive)
+   * @param maxStringLength      the maximal length of a string (exclusive)
+   * @param random               the random source
+   * @param skew                 the exponent of the Zipf distribution, 0 for uniform strings
+   * @return the generated strings
+   */
+  public static List<String> generateRandomStrings(LanguageParameter params,
+      int numStringsToGenerate, int minStringLength, int maxStringLength, Random random,
+      double skew) {
 
     List<Character> alphabet = params.getAlphabet();
-    //Build Strings of Size 2 - 5
+    double[] cumulativeWeights = new double[alphabet.size()];
+    double totalWeight = 0;
+    for (int k = 0; k < alphabet.size(); k++) {
+      totalWeight += 1 / Math.pow(k + 1, skew);
+      cumulativeWeights[k] = totalWeight;
+    }
+
     List<String> testSet = new ArrayList<>(numStringsToGenerate);
 
     StringBuilder builder = new StringBuilder();
-    Random random = new Random();
     for (int i = 0; i < numStringsToGenerate; i++) {
       builder.delete(0, builder.length());
 
       int size = random.nextInt(maxStringLength - minStringLength) + minStringLength;
       for (int j = 0; j < size; j++) {
-        builder.append(alphabet.get(random.nextInt(alphabet.size())));
+        if (skew == 0) {
+          builder.append(alphabet.get(random.nextInt(alphabet.size())));
+          continue;
+        }
+        int index = Arrays.binarySearch(cumulativeWeights,
+            random.nextDouble() * totalWeight);
+        index = index >= 0 ? index : -(index + 1);
+        builder.append(alphabet.get(Math.min(index, alphabet.size() - 1)));
       }
       testSet.add(builder.toString());
     }
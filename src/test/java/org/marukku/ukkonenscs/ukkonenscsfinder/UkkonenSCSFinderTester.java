@@ -9,10 +9,22 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.marukku.ukkonenscs.alphabet.LanguageParameterFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.junit.Test;
+import org.marukku.ukkonenscs.alphabet.LanguageParameter;
+import org.marukku.ukkonenscs.metrics.BuildMetrics;
+import org.marukku.ukkonenscs.metrics.BuildPhase;
+import org.marukku.ukkonenscs.metrics.BuildSize;
+import org.marukku.ukkonenscs.trienodes.TransitionStrategy;
 import org.marukku.ukkonenscs.trienodes.UkkonenTrieNode;
 
 /**
@@ -29,6 +41,54 @@ public class UkkonenSCSFinderTester {
         SCSTester.testRandomlyGeneratedSCS(5000, 5, 12));
   }
 
+  @Test
+  public void metrics_report_all_phases_and_sizes() {
+    //ARRANGE
+    LanguageParameter params = LanguageParameterFactory.defaultParameter;
+    List<String> keys = List.of("aki", "ele", "kiki", "kira", "lea", "ki", "xyz");
+    BuildMetrics metrics = new BuildMetrics();
+
+    //ACT
+    UkkonenSCSFinder finder = UkkonenSCSFinder.createFromParams(keys, params,
+        TransitionStrategy.DENSE, metrics);
+    String scs = finder.getSCS();
+
+    //ASSERT
+    for (BuildPhase phase : BuildPhase.values()) {
+      //The DFA of the trie is never built
+      assertEquals(phase.toString(), phase != BuildPhase.DFA,
+          metrics.getDurationNanos(phase) >= 0);
+    }
+    assertEquals(finder.allNodes.size(), metrics.getSize(BuildSize.NODE_COUNT));
+    assertEquals(7, metrics.getSize(BuildSize.KEY_COUNT));
+    assertEquals(6, metrics.getSize(BuildSize.REDUCED_KEY_COUNT)); //"ki" is part of "aki"
+    OverlapPath path = finder.getOverlapPath();
+    assertEquals(path.getComponentCount(), metrics.getSize(BuildSize.COMPONENT_COUNT));
+    assertEquals(6 - path.getComponentCount(), metrics.getSize(BuildSize.GREEDY_EDGE_COUNT));
+    assertEquals(scs.length(), metrics.getSize(BuildSize.SUPERSTRING_LENGTH));
+    assertEquals(22.0 / scs.length(), metrics.getCompressionRatio(), 1e-9);
+  }
+
+  @Test
+  public void adaptive_nodes_find_valid_superstring_for_large_alphabets() {
+    //ARRANGE
+    List<Character> alphabet = new ArrayList<>();
+    for (char c = '\u4e00'; c < '\u4e00' + 2000; c++) {
+      alphabet.add(c);
+    }
+    LanguageParameter params = LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+    List<String> keys = RandomStringGenerator.generateRandomStrings(params, 3000, 2, 6);
+
+    //ACT
+    String scs = UkkonenSCSFinder.createFromParams(keys, params, TransitionStrategy.ADAPTIVE)
+                     .getSCS();
+
+    //ASSERT
+    for (String key : keys) {
+      assertTrue(scs.contains(key));
+    }
+  }
+
   @Test
   public void depth_and_supporters_are_correct(){
     //ARRANGE
@@ -58,4 +118,67 @@ public class UkkonenSCSFinderTester {
     assertTrue(Set.of("eleakirakiki", "eleakikira").contains(finder.getSCS()));
   }
 
+
+  @Test
+  public void written_superstring_equals_returned_superstring() throws IOException {
+    //ARRANGE
+    List<Character> alphabet = List.of('a', 'b', '\u00e4', '\u4e00');
+    LanguageParameter params = LanguageParameterFactory.createLanguageParametersFromAlphabet(alphabet);
+    List<String> keys = RandomStringGenerator.generateRandomStrings(params, 20000, 3, 10);
+    UkkonenSCSFinder finder = UkkonenSCSFinder.createFromParams(keys, params);
+    CompactUkkonenSCSFinder compactFinder = CompactUkkonenSCSFinder.createFromParams(keys, params);
+
+    //ACT
+    StringWriter writer = new StringWriter();
+    finder.writeSCS(writer);
+    StringBuilder builder = new StringBuilder();
+    compactFinder.writeSCS(builder);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (WritableByteChannel channel = Channels.newChannel(bytes)) {
+      finder.writeSCS(channel, StandardCharsets.UTF_8);
+    }
+
+    //ASSERT
+    String scs = finder.getSCS();
+    assertEquals(scs, writer.toString());
+    assertEquals(scs, builder.toString());
+    assertEquals(scs, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void overlap_path_describes_returned_superstring() {
+    //ARRANGE
+    LanguageParameter params = LanguageParameterFactory.createLanguageParametersFromAlphabet(
+        List.of('a', 'c', 'g', 't'));
+    List<String> keys = RandomStringGenerator.generateRandomStrings(params, 5000, 4, 12);
+    UkkonenSCSFinder finder = UkkonenSCSFinder.createFromParams(keys, params);
+
+    //ACT
+    OverlapPath path = finder.getOverlapPath();
+    int[] order = path.getOrder();
+    int[] overlaps = path.getOverlaps();
+
+    //ASSERT
+    StringBuilder scs = new StringBuilder();
+    Set<Integer> seen = new HashSet<>();
+    for (int c = 0; c < path.getComponentCount(); c++) {
+      int end = path.getComponentEnd(c);
+      for (int i = path.getComponentStarts()[c]; i < end; i++) {
+        String key = keys.get(order[i]);
+        assertTrue(seen.add(order[i]));
+        if (i + 1 < end) {
+          String next = keys.get(order[i + 1]);
+          assertTrue(overlaps[i] > 0);
+          assertEquals(key.substring(key.length() - overlaps[i]), next.substring(0, overlaps[i]));
+        } else {
+          assertEquals(0, overlaps[i]);
+        }
+        scs.append(key, i > 0 ? overlaps[i - 1] : 0, key.length());
+      }
+    }
+    assertEquals(finder.getSCS(), scs.toString());
+    assertEquals(finder.getOverlapPath().getComponentCount(),
+        CompactUkkonenSCSFinder.createFromParams(keys, params).getOverlapPath()
+            .getComponentCount());
+  }
 }